@@ -0,0 +1,88 @@
+package com.zottik.hytale;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link FreecamState#isFreecamEnabled} lookup that every block
+ * event runs, under increasing thread contention.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FreecamStateBenchmark {
+
+    // Matches MaxPlayers in the server config.json
+    private static final int PLAYERS = 100;
+
+    private UUID[] players;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        FreecamState state = FreecamState.getInstance();
+        // No world is needed for the lookup; the shard is only used to publish enabled flags
+        FreecamWorldState worldState = new FreecamWorldState();
+        players = new UUID[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            players[i] = new UUID(0x5EED_0000_0000_0000L, i);
+            state.setSpeed(players[i], 1 + (i % 10));
+            // Only a few players are in freecam at any time
+            if (i % 10 == 0) {
+                worldState.enableFreecam(players[i]);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (UUID player : players) {
+            FreecamState.getInstance().removePlayer(player);
+        }
+    }
+
+    /**
+     * Per-thread cursor so threads walk the player table independently.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void isFreecamEnabled_1Thread(Cursor cursor, Blackhole bh) {
+        lookup(cursor, bh);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void isFreecamEnabled_8Threads(Cursor cursor, Blackhole bh) {
+        lookup(cursor, bh);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void isFreecamEnabled_64Threads(Cursor cursor, Blackhole bh) {
+        lookup(cursor, bh);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void isFreecamEnabled_unknownPlayer(Blackhole bh) {
+        bh.consume(FreecamState.getInstance().isFreecamEnabled(UNKNOWN));
+    }
+
+    private static final UUID UNKNOWN = new UUID(0xDEAD_BEEFL, 0xDEAD_BEEFL);
+
+    private void lookup(Cursor cursor, Blackhole bh) {
+        int index = cursor.next;
+        cursor.next = index + 1 == PLAYERS ? 0 : index + 1;
+        bh.consume(FreecamState.getInstance().isFreecamEnabled(players[index]));
+    }
+}
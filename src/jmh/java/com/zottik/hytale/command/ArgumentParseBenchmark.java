@@ -0,0 +1,43 @@
+package com.zottik.hytale.command;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the value parsing behind the --speed and --show-player arguments,
+ * including rejected input.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArgumentParseBenchmark {
+
+    // Speed levels of the default configuration
+    private static final int SPEED_LEVELS = 10;
+
+    @State(Scope.Thread)
+    public static class SpeedInput {
+        @Param({"5", "10", "11", "fast"})
+        public String value;
+    }
+
+    @State(Scope.Thread)
+    public static class ShowPlayerInput {
+        @Param({"true", "OFF", "maybe"})
+        public String value;
+    }
+
+    @Benchmark
+    public void parseSpeed(SpeedInput input, Blackhole bh) {
+        bh.consume(FreecamSpeedArgumentType.parseSpeed(input.value, SPEED_LEVELS));
+    }
+
+    @Benchmark
+    public void parseShowPlayer(ShowPlayerInput input, Blackhole bh) {
+        bh.consume(ShowPlayerArgumentType.parseFlag(input.value));
+    }
+}
@@ -0,0 +1,55 @@
+package com.zottik.hytale.command;
+
+import com.zottik.hytale.FreecamConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the camera settings sent on every freecam toggle, both
+ * from scratch and stamped from the precomputed templates.
+ * Run with {@code -prof gc} (the default for the jmh task) to see the
+ * allocation rate per toggle. The camera pose is plain values, so no server
+ * math types are needed at runtime.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FreecamSettingsBenchmark {
+
+    @Param({"1", "5", "10"})
+    public int speed;
+
+    @Param({"true", "false"})
+    public boolean showPlayer;
+
+    private FreecamConfig config;
+    private FreecamCameraTemplates templates;
+    private double x, y, z;
+    private float yaw, pitch, roll;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        config = FreecamConfig.defaults();
+        templates = new FreecamCameraTemplates(config);
+        x = 128.5;
+        y = 66.5;
+        z = -42.25;
+        yaw = 1.25f;
+        pitch = -0.3f;
+        roll = 0.0f;
+    }
+
+    @Benchmark
+    public Object buildFreecamSettings() {
+        return FreecamCameraTemplates.buildFreecamSettings(x, y, z, yaw, pitch, roll, config, speed, showPlayer);
+    }
+
+    @Benchmark
+    public Object createFromTemplate() {
+        return templates.create(x, y, z, yaw, pitch, roll, speed, showPlayer);
+    }
+}
@@ -0,0 +1,331 @@
+package com.zottik.hytale;
+
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.event.events.ecs.BreakBlockEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerReadyEvent;
+import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.zottik.hytale.command.FreecamCommand;
+import com.zottik.hytale.metrics.FreecamMetrics;
+import com.zottik.hytale.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Headless load test for the freecam command and guard paths.
+ *
+ * Sets the plugin up against the server stand-ins in src/standin/java and
+ * simulates thousands of players spread over several worlds, each world a
+ * single tick thread like on the server. Client threads post a mix of
+ * freecam toggles, speed changes and block breaks to the players' world
+ * threads. Toggles and speed changes run FreecamCommand with a parsed
+ * command line, rate limit and debounce included, and block breaks are
+ * dispatched through the store to the registered guard systems, all with
+ * the default configuration and a scratch data directory.
+ *
+ * Reports throughput, end-to-end latency (queueing on the world thread
+ * included), camera packets written, the allocation rate and the plugin's
+ * own metrics. Only the plugin's classes and the stand-ins are needed at
+ * runtime, not the server JAR.
+ *
+ * Usage: FreecamLoadTest [--players N] [--worlds N] [--clients N]
+ *                        [--seconds N] [--warmup-seconds N] [--report file]
+ */
+public final class FreecamLoadTest {
+
+    // Operation mix, in percent
+    private static final int TOGGLE_PERCENT = 10;
+    private static final int SPEED_PERCENT = 10;
+
+    // Bound on operations queued on the world threads at once
+    private static final int MAX_IN_FLIGHT = 1024;
+
+    private final int players;
+    private final int worlds;
+    private final int clients;
+    private final int seconds;
+    private final int warmupSeconds;
+    private final Path report;
+
+    private Path dataDirectory;
+    private FreecamPlugin plugin;
+    private final FreecamCommand command = new FreecamCommand();
+
+    private final List<World> simulatedWorlds = new ArrayList<>();
+    private SimulatedPlayer[] simulatedPlayers;
+
+    private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+    private final LongAdder toggles = new LongAdder();
+    private final LongAdder speedChanges = new LongAdder();
+    private final LongAdder blockBreaks = new LongAdder();
+    private final LongAdder blockBreaksCancelled = new LongAdder();
+    private volatile LatencyHistogram toggleLatency = new LatencyHistogram();
+    private volatile LatencyHistogram blockBreakLatency = new LatencyHistogram();
+
+    private FreecamLoadTest(int players, int worlds, int clients, int seconds, int warmupSeconds, Path report) {
+        this.players = players;
+        this.worlds = worlds;
+        this.clients = clients;
+        this.seconds = seconds;
+        this.warmupSeconds = warmupSeconds;
+        this.report = report;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int players = 5000;
+        int worlds = 4;
+        int clients = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        int seconds = 30;
+        int warmupSeconds = 5;
+        Path report = null;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--players" -> players = Integer.parseInt(value);
+                case "--worlds" -> worlds = Integer.parseInt(value);
+                case "--clients" -> clients = Integer.parseInt(value);
+                case "--seconds" -> seconds = Integer.parseInt(value);
+                case "--warmup-seconds" -> warmupSeconds = Integer.parseInt(value);
+                case "--report" -> report = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+            i++;
+        }
+        new FreecamLoadTest(players, worlds, clients, seconds, warmupSeconds, report).run();
+    }
+
+    private void run() throws Exception {
+        setUp();
+        System.out.println("Freecam load test: " + players + " players, " + worlds + " worlds, "
+            + clients + " client threads, " + warmupSeconds + "s warmup, " + seconds + "s measured");
+
+        drive(warmupSeconds);
+        resetCounters();
+
+        long allocatedBefore = allocatedBytes();
+        long packetsBefore = packetsWritten();
+        long start = System.nanoTime();
+        drive(seconds);
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        long packets = packetsWritten() - packetsBefore;
+
+        printReport(elapsedNanos, allocated, packets);
+        tearDown();
+    }
+
+    /**
+     * Set the plugin up as the server would, then join every player to
+     * their world and let the plugin's join listeners run.
+     */
+    private void setUp() throws IOException, InterruptedException {
+        dataDirectory = Files.createTempDirectory("freecam-loadtest");
+        plugin = new FreecamPlugin(new JavaPluginInit(dataDirectory));
+        plugin.start();
+
+        for (int i = 0; i < worlds; i++) {
+            World world = new World("loadtest-" + i);
+            Universe.get().addWorld(world);
+            simulatedWorlds.add(world);
+        }
+        simulatedPlayers = new SimulatedPlayer[players];
+        CountDownLatch joined = new CountDownLatch(players);
+        for (int i = 0; i < players; i++) {
+            World world = simulatedWorlds.get(i % worlds);
+            SimulatedPlayer player = new SimulatedPlayer(new UUID(0x10AD_7E57L, i), world, i % 512, 64.0, i / 512);
+            simulatedPlayers[i] = player;
+            world.getPlayerRefs().add(player.playerRef);
+            Universe.get().addPlayer(player.playerRef);
+            world.execute(() -> {
+                plugin.getEventRegistry().dispatch(new PlayerReadyEvent(player.entityRef));
+                joined.countDown();
+            });
+        }
+        joined.await();
+    }
+
+    private void tearDown() throws IOException {
+        plugin.stop();
+        for (World world : simulatedWorlds) {
+            world.shutdown();
+        }
+        try (Stream<Path> files = Files.walk(dataDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Run the client threads for a number of seconds, then wait for the
+     * world threads to finish everything queued.
+     */
+    private void drive(int durationSeconds) throws InterruptedException {
+        if (durationSeconds <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            Thread client = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        submitRandomOperation();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "LoadTest-Client-" + i);
+            client.setDaemon(true);
+            client.start();
+        }
+        done.await();
+        inFlight.acquire(MAX_IN_FLIGHT);
+        inFlight.release(MAX_IN_FLIGHT);
+    }
+
+    private void submitRandomOperation() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SimulatedPlayer player = simulatedPlayers[random.nextInt(players)];
+        int roll = random.nextInt(100);
+        inFlight.acquire();
+        long submitted = System.nanoTime();
+        if (roll < TOGGLE_PERCENT) {
+            player.world.execute(() -> {
+                command.run(new CommandContext(""), player.playerRef);
+                toggleLatency.record(System.nanoTime() - submitted);
+                toggles.increment();
+                inFlight.release();
+            });
+        } else if (roll < TOGGLE_PERCENT + SPEED_PERCENT) {
+            int speed = 1 + random.nextInt(plugin.getFreecamConfig().getSpeedLevels());
+            player.world.execute(() -> {
+                command.run(new CommandContext("--speed " + speed), player.playerRef);
+                speedChanges.increment();
+                inFlight.release();
+            });
+        } else {
+            player.world.execute(() -> {
+                BreakBlockEvent event = new BreakBlockEvent();
+                player.entityRef.getStore().invoke(player.entityRef, event);
+                if (event.isCancelled()) {
+                    blockBreaksCancelled.increment();
+                }
+                blockBreakLatency.record(System.nanoTime() - submitted);
+                blockBreaks.increment();
+                inFlight.release();
+            });
+        }
+    }
+
+    private void resetCounters() {
+        toggles.reset();
+        speedChanges.reset();
+        blockBreaks.reset();
+        blockBreaksCancelled.reset();
+        toggleLatency = new LatencyHistogram();
+        blockBreakLatency = new LatencyHistogram();
+    }
+
+    /**
+     * Sum of the camera packets written to every simulated connection. Read
+     * between runs, when the world threads are idle.
+     */
+    private long packetsWritten() {
+        long total = 0;
+        for (SimulatedPlayer player : simulatedPlayers) {
+            total += player.packetsWritten();
+        }
+        return total;
+    }
+
+    /**
+     * Bytes allocated so far by all live threads, or -1 if the JVM cannot tell.
+     */
+    private static long allocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    private void printReport(long elapsedNanos, long allocatedBytes, long packets) throws IOException {
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        long operations = toggles.sum() + speedChanges.sum() + blockBreaks.sum();
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "Throughput: %.0f ops/s (%d ops in %.1fs)",
+            operations / elapsedSeconds, operations, elapsedSeconds));
+        lines.add(String.format(Locale.ROOT, "Toggles: %d (%.0f/s), p99 %d us, max %d us",
+            toggles.sum(), toggles.sum() / elapsedSeconds,
+            toggleLatency.getPercentileMicros(99.0), toggleLatency.getMaxMicros()));
+        lines.add(String.format(Locale.ROOT, "Block breaks: %d (%d cancelled), p99 %d us, max %d us",
+            blockBreaks.sum(), blockBreaksCancelled.sum(),
+            blockBreakLatency.getPercentileMicros(99.0), blockBreakLatency.getMaxMicros()));
+        lines.add("Speed changes: " + speedChanges.sum());
+        lines.add(String.format(Locale.ROOT, "Packets written: %d (%.0f/s)", packets, packets / elapsedSeconds));
+        lines.add(allocatedBytes < 0 ? "Allocation rate: unavailable"
+            : String.format(Locale.ROOT, "Allocation rate: %.1f MB/s (%.0f bytes/op)",
+                allocatedBytes / elapsedSeconds / (1024 * 1024), (double) allocatedBytes / Math.max(1, operations)));
+        for (String line : lines) {
+            System.out.println(line);
+        }
+        System.out.println("Plugin metrics:");
+        for (String line : FreecamMetrics.getInstance().report()) {
+            System.out.println("  " + line);
+        }
+
+        if (report != null) {
+            String json = String.format(Locale.ROOT, """
+                {
+                  "players": %d,
+                  "worlds": %d,
+                  "clients": %d,
+                  "seconds": %.3f,
+                  "opsPerSecond": %.1f,
+                  "toggles": %d,
+                  "toggleP99Micros": %d,
+                  "blockBreaks": %d,
+                  "blockBreakP99Micros": %d,
+                  "speedChanges": %d,
+                  "packetsWritten": %d,
+                  "allocatedBytes": %d,
+                  "allocatedBytesPerSecond": %.1f
+                }
+                """, players, worlds, clients, elapsedSeconds, operations / elapsedSeconds,
+                toggles.sum(), toggleLatency.getPercentileMicros(99.0),
+                blockBreaks.sum(), blockBreakLatency.getPercentileMicros(99.0),
+                speedChanges.sum(), packets, allocatedBytes, allocatedBytes / elapsedSeconds);
+            if (report.getParent() != null) {
+                Files.createDirectories(report.getParent());
+            }
+            Files.writeString(report, json, StandardCharsets.UTF_8);
+            System.out.println("Report written to " + report);
+        }
+    }
+}
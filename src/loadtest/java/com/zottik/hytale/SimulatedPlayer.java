@@ -0,0 +1,41 @@
+package com.zottik.hytale;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Transform;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.UUID;
+
+/**
+ * A connected player: an entity in a world's store with the PlayerRef and
+ * Player components the plugin reads, and a stand-in PacketHandler that
+ * counts the packets written to the connection.
+ * Only touched on its world's thread.
+ */
+final class SimulatedPlayer {
+
+    final World world;
+    final Ref<EntityStore> entityRef;
+    final PlayerRef playerRef;
+
+    SimulatedPlayer(UUID uuid, World world, double x, double y, double z) {
+        this.world = world;
+        Store<EntityStore> store = world.getEntityStore().getStore();
+        this.entityRef = store.addEntity();
+        this.playerRef = new PlayerRef(uuid, "player-" + uuid.getLeastSignificantBits(), entityRef,
+            new Transform(new Vector3d(x, y, z), new Vector3f()), new Vector3f());
+        store.addComponent(entityRef, PlayerRef.getComponentType(), playerRef);
+        store.addComponent(entityRef, Player.getComponentType(), new Player(GameMode.Adventure));
+    }
+
+    long packetsWritten() {
+        return playerRef.getPacketHandler().getPacketsWritten();
+    }
+}
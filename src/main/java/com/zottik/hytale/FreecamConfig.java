@@ -0,0 +1,647 @@
+package com.zottik.hytale;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.zottik.hytale.event.FreecamGuard;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable plugin configuration, read from freecam.properties in the
+ * plugin's data directory. A file with the defaults is written on first run.
+ *
+ * Each instance is a snapshot. The plugin publishes the current one through
+ * a volatile field, and {@link FreecamConfigWatcher} swaps in a new snapshot
+ * when the file changes, so readers never lock and never see a half-applied
+ * change.
+ */
+public final class FreecamConfig {
+
+    public static final String FILE_NAME = "freecam.properties";
+
+    private static final String DEFAULT_FILE = """
+        # Freecam plugin configuration
+        # Changes are picked up while the server runs, except playback.rate-hz and
+        # metrics.log-interval-seconds, which need a restart. A file with an
+        # invalid value is rejected and the running configuration is kept.
+
+        # Maximum number of queued freecam toggles (camera packet + teleport) to
+        # apply per world tick when using /freecam all|world|list.
+        batch.toggles-per-tick=10
+
+        # Per-player /freecam toggle rate limit: up to toggle.burst toggles at
+        # once, regaining one every toggle.refill-ms. 0 disables the limit.
+        toggle.burst=4
+        toggle.refill-ms=1000
+        # Toggles are applied after this many milliseconds, and a toggle that
+        # undoes one still waiting cancels it, so rapid on/off sends nothing.
+        # 0 applies toggles immediately.
+        toggle.debounce-ms=250
+
+        # Camera movement multipliers for each /freecam --speed level, starting
+        # at level 1: comma-separated values, horizontal and vertical, with the
+        # same number of values in both. The number of values sets the highest
+        # speed level. Fractional values give finer steps than whole levels.
+        speed.horizontal=1,2,3,4,5,6,7,8,9,10
+        speed.vertical=0.52,0.64,0.76,0.88,1,1.12,1.24,1.36,1.48,1.6
+        # Speed level of players who never set one.
+        speed.default=5
+
+        # Height in blocks above the player at which the freecam camera starts.
+        camera.lift=2.5
+        # How quickly the client camera catches up with its target position and
+        # rotation, 0-1 (1 = instantly).
+        camera.position-lerp-speed=1
+        camera.rotation-lerp-speed=1
+
+        # Interactions blocked while a player is in freecam.
+        guard.break-block=true
+        guard.damage-block=true
+        guard.place-block=true
+        guard.use-block=true
+        guard.pickup-item=true
+        guard.drop-item=true
+        # Damage dealt by players in freecam to other entities.
+        guard.damage-entity=true
+
+        # Maximum distance in blocks the freecam camera may move away from the
+        # player's saved origin. 0 disables the radius check.
+        leash.radius=128
+        # Number of freecam players checked against the leash per world tick.
+        leash.checks-per-tick=8
+        # Optional per-world camera bounds: minX,minY,minZ,maxX,maxY,maxZ
+        # leash.bounds.default=-1000,0,-1000,1000,320,1000
+
+        # Chunk loads requested ahead of moving freecam cameras per world tick.
+        # 0 disables prefetching.
+        prefetch.chunks-per-tick=4
+        # How far ahead along the direction of travel to prefetch, in milliseconds
+        # of camera movement at the current speed.
+        prefetch.lookahead-ms=2000
+        # Chunks on each side of the predicted path to prefetch.
+        prefetch.radius-chunks=1
+        # Never prefetch further than this from the camera. Keep this at or
+        # below MaxViewRadius in the server config.
+        prefetch.max-distance-chunks=32
+
+        # Maximum keyframes kept by /freecam record (one per world tick). Older
+        # keyframes are dropped once a recording is longer than this.
+        path.max-keyframes=36000
+        # Camera updates per second sent while playing a path with /freecam play.
+        playback.rate-hz=20
+
+        # Camera offset from the followed player for /freecam follow: x,y,z in
+        # blocks, and yaw,pitch,roll in radians.
+        follow.position-offset=0,2,-4
+        follow.rotation-offset=0,0,0
+
+        # Maximum viewers watching one director with /freecam watch.
+        broadcast.max-viewers=64
+
+        # End freecam sessions, returning the player to their body, after this
+        # many minutes without input. Flying, looking around, path playback,
+        # following and watching count as activity. 0 disables it.
+        idle.timeout-minutes=10
+
+        # Send freecam players the entities around their camera instead of
+        # around their body.
+        relevance.enabled=true
+
+        # Forget the speed and show-player preferences of players who are not
+        # online and have not changed them for this many minutes. They are
+        # reloaded from disk when the player joins again.
+        state.idle-ttl-minutes=30
+        # Keep preferences for at most this many players in memory.
+        state.max-entries=10000
+
+        # Log the /freecam stats report every this many seconds. 0 disables it.
+        metrics.log-interval-seconds=0
+        """;
+
+    private static final String BOUNDS_PREFIX = "leash.bounds.";
+    private static final String GUARD_PREFIX = "guard.";
+
+    // Most /freecam --speed levels a speed curve may define
+    private static final int MAX_SPEED_LEVELS = 100;
+
+    private static final float[] DEFAULT_SPEED_HORIZONTAL = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+    private static final float[] DEFAULT_SPEED_VERTICAL = {0.52f, 0.64f, 0.76f, 0.88f, 1.0f, 1.12f, 1.24f, 1.36f, 1.48f, 1.6f};
+
+    private final int batchTogglesPerTick;
+    private final int toggleBurst;
+    private final int toggleRefillMs;
+    private final int toggleDebounceMs;
+    private final float[] speedHorizontal;
+    private final float[] speedVertical;
+    private final int defaultSpeed;
+    private final double cameraLift;
+    private final float cameraPositionLerpSpeed;
+    private final float cameraRotationLerpSpeed;
+    // Indexed by FreecamGuard ordinal
+    private final boolean[] guarded;
+    private final double leashRadius;
+    private final int leashChecksPerTick;
+    private final Map<String, Bounds> worldBounds;
+    private final int prefetchChunksPerTick;
+    private final int prefetchLookaheadMs;
+    private final int prefetchRadiusChunks;
+    private final int prefetchMaxDistanceChunks;
+    private final int pathMaxKeyframes;
+    private final int playbackRateHz;
+    private final double[] followPositionOffset;
+    private final float[] followRotationOffset;
+    private final int broadcastMaxViewers;
+    private final int idleTimeoutMinutes;
+    private final boolean relevanceEnabled;
+    private final int stateIdleTtlMinutes;
+    private final int stateMaxEntries;
+    private final int metricsLogIntervalSeconds;
+
+    // Values that were rejected and replaced by their default while parsing
+    private int invalidValues;
+
+    private FreecamConfig(Properties properties) {
+        this.batchTogglesPerTick = readInt(properties, "batch.toggles-per-tick", 10, 1, 1000);
+        this.toggleBurst = readInt(properties, "toggle.burst", 4, 1, 100);
+        this.toggleRefillMs = readInt(properties, "toggle.refill-ms", 1000, 0, 3_600_000);
+        this.toggleDebounceMs = readInt(properties, "toggle.debounce-ms", 250, 0, 5000);
+        float[] horizontal = readCurve(properties, "speed.horizontal", DEFAULT_SPEED_HORIZONTAL);
+        float[] vertical = readCurve(properties, "speed.vertical", DEFAULT_SPEED_VERTICAL);
+        if (horizontal.length != vertical.length) {
+            log().atWarning().log("Freecam config speed.horizontal and speed.vertical need the same number of values, using the defaults.");
+            invalidValues++;
+            horizontal = DEFAULT_SPEED_HORIZONTAL;
+            vertical = DEFAULT_SPEED_VERTICAL;
+        }
+        this.speedHorizontal = horizontal;
+        this.speedVertical = vertical;
+        this.defaultSpeed = readInt(properties, "speed.default", Math.min(5, horizontal.length), 1, horizontal.length);
+        this.cameraLift = readDouble(properties, "camera.lift", 2.5, 0, 64);
+        this.cameraPositionLerpSpeed = (float) readDouble(properties, "camera.position-lerp-speed", 1.0, 0.01, 1.0);
+        this.cameraRotationLerpSpeed = (float) readDouble(properties, "camera.rotation-lerp-speed", 1.0, 0.01, 1.0);
+        this.guarded = readGuards(properties);
+        this.leashRadius = readInt(properties, "leash.radius", 128, 0, 100_000);
+        this.leashChecksPerTick = readInt(properties, "leash.checks-per-tick", 8, 1, 1000);
+        this.worldBounds = readBounds(properties);
+        this.prefetchChunksPerTick = readInt(properties, "prefetch.chunks-per-tick", 4, 0, 256);
+        this.prefetchLookaheadMs = readInt(properties, "prefetch.lookahead-ms", 2000, 0, 30_000);
+        this.prefetchRadiusChunks = readInt(properties, "prefetch.radius-chunks", 1, 0, 8);
+        this.prefetchMaxDistanceChunks = readInt(properties, "prefetch.max-distance-chunks", 32, 1, 128);
+        this.pathMaxKeyframes = readInt(properties, "path.max-keyframes", 36000, 1, 1_000_000);
+        this.playbackRateHz = readInt(properties, "playback.rate-hz", 20, 1, 120);
+        this.followPositionOffset = readTriple(properties, "follow.position-offset", new double[] {0, 2, -4});
+        double[] rotationOffset = readTriple(properties, "follow.rotation-offset", new double[] {0, 0, 0});
+        this.followRotationOffset = new float[] {(float) rotationOffset[0], (float) rotationOffset[1], (float) rotationOffset[2]};
+        this.broadcastMaxViewers = readInt(properties, "broadcast.max-viewers", 64, 1, 10_000);
+        this.idleTimeoutMinutes = readInt(properties, "idle.timeout-minutes", 10, 0, 10_080);
+        this.relevanceEnabled = readBoolean(properties, "relevance.enabled", true);
+        this.stateIdleTtlMinutes = readInt(properties, "state.idle-ttl-minutes", 30, 1, 10_080);
+        this.stateMaxEntries = readInt(properties, "state.max-entries", 10_000, 100, 10_000_000);
+        this.metricsLogIntervalSeconds = readInt(properties, "metrics.log-interval-seconds", 0, 0, 86_400);
+    }
+
+    /**
+     * Get the configuration with every value at its default.
+     */
+    public static FreecamConfig defaults() {
+        return new FreecamConfig(new Properties());
+    }
+
+    /**
+     * Load the configuration, writing the default file if it does not exist.
+     * Falls back to the defaults if the file cannot be read, and to the
+     * default of each value that is invalid.
+     */
+    public static FreecamConfig load(Path directory) {
+        Path file = directory.resolve(FILE_NAME);
+        try {
+            if (!Files.exists(file)) {
+                Files.createDirectories(directory);
+                Files.writeString(file, DEFAULT_FILE, StandardCharsets.UTF_8);
+            }
+            return read(file);
+        } catch (IOException e) {
+            log().atWarning().log("Failed to read " + file + ", using defaults: " + e);
+            return defaults();
+        }
+    }
+
+    /**
+     * Read the configuration again after the file changed. Returns null if
+     * the file cannot be read or any value in it is invalid, so a bad edit
+     * never replaces a working configuration.
+     */
+    public static FreecamConfig reload(Path directory) {
+        Path file = directory.resolve(FILE_NAME);
+        try {
+            FreecamConfig config = read(file);
+            if (config.invalidValues > 0) {
+                log().atWarning().log(file + " has " + config.invalidValues + " invalid values, keeping the previous configuration.");
+                return null;
+            }
+            return config;
+        } catch (IOException e) {
+            log().atWarning().log("Failed to read " + file + ", keeping the previous configuration: " + e);
+            return null;
+        }
+    }
+
+    private static FreecamConfig read(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return new FreecamConfig(properties);
+    }
+
+    /**
+     * Toggles applied per world tick by the batch toggle system.
+     */
+    public int getBatchTogglesPerTick() {
+        return batchTogglesPerTick;
+    }
+
+    /**
+     * Toggles a player may make back to back before the rate limit applies.
+     */
+    public int getToggleBurst() {
+        return toggleBurst;
+    }
+
+    /**
+     * Nanoseconds for a player to regain one toggle, 0 if unlimited.
+     */
+    public long getToggleRefillNanos() {
+        return toggleRefillMs * 1_000_000L;
+    }
+
+    /**
+     * Milliseconds a toggle waits before it is applied, 0 to apply at once.
+     */
+    public int getToggleDebounceMs() {
+        return toggleDebounceMs;
+    }
+
+    /**
+     * Highest speed level; levels run from 1 to this.
+     */
+    public int getSpeedLevels() {
+        return speedHorizontal.length;
+    }
+
+    /**
+     * Horizontal camera movement multiplier for a speed level.
+     */
+    public float getSpeedHorizontal(int speed) {
+        return speedHorizontal[speed - 1];
+    }
+
+    /**
+     * Vertical camera movement multiplier for a speed level.
+     */
+    public float getSpeedVertical(int speed) {
+        return speedVertical[speed - 1];
+    }
+
+    /**
+     * Speed level of players who never set one.
+     */
+    public int getDefaultSpeed() {
+        return defaultSpeed;
+    }
+
+    /**
+     * Blocks above the player at which the freecam camera starts.
+     */
+    public double getCameraLift() {
+        return cameraLift;
+    }
+
+    /**
+     * Client camera position lerp speed, 0-1.
+     */
+    public float getCameraPositionLerpSpeed() {
+        return cameraPositionLerpSpeed;
+    }
+
+    /**
+     * Client camera rotation lerp speed, 0-1.
+     */
+    public float getCameraRotationLerpSpeed() {
+        return cameraRotationLerpSpeed;
+    }
+
+    /**
+     * Whether an interaction is blocked while in freecam.
+     */
+    public boolean isGuarded(FreecamGuard guard) {
+        return guarded[guard.ordinal()];
+    }
+
+    /**
+     * Maximum camera distance from the saved origin, 0 if unlimited.
+     */
+    public double getLeashRadius() {
+        return leashRadius;
+    }
+
+    /**
+     * Freecam players checked against the leash per world tick.
+     */
+    public int getLeashChecksPerTick() {
+        return leashChecksPerTick;
+    }
+
+    /**
+     * Camera bounds for a world, or null if the world has none.
+     */
+    public Bounds getWorldBounds(String worldName) {
+        return worldBounds.get(worldName);
+    }
+
+    /**
+     * Chunk loads requested ahead of freecam cameras per world tick, 0 if disabled.
+     */
+    public int getPrefetchChunksPerTick() {
+        return prefetchChunksPerTick;
+    }
+
+    /**
+     * How far ahead of the camera to prefetch, in milliseconds of movement.
+     */
+    public int getPrefetchLookaheadMs() {
+        return prefetchLookaheadMs;
+    }
+
+    /**
+     * Chunks on each side of the predicted camera path to prefetch.
+     */
+    public int getPrefetchRadiusChunks() {
+        return prefetchRadiusChunks;
+    }
+
+    /**
+     * Maximum prefetch distance from the camera, in chunks.
+     */
+    public int getPrefetchMaxDistanceChunks() {
+        return prefetchMaxDistanceChunks;
+    }
+
+    /**
+     * Maximum keyframes kept per camera path recording.
+     */
+    public int getPathMaxKeyframes() {
+        return pathMaxKeyframes;
+    }
+
+    /**
+     * Camera updates sent per second during path playback.
+     */
+    public int getPlaybackRateHz() {
+        return playbackRateHz;
+    }
+
+    /**
+     * Camera position offset (x, y, z) from a followed player, in blocks. Do not modify.
+     */
+    public double[] getFollowPositionOffset() {
+        return followPositionOffset;
+    }
+
+    /**
+     * Camera rotation offset (yaw, pitch, roll) from a followed player. Do not modify.
+     */
+    public float[] getFollowRotationOffset() {
+        return followRotationOffset;
+    }
+
+    /**
+     * Maximum viewers per broadcasting director.
+     */
+    public int getBroadcastMaxViewers() {
+        return broadcastMaxViewers;
+    }
+
+    /**
+     * Seconds without camera movement before a freecam session ends, 0 if disabled.
+     */
+    public int getIdleTimeoutSeconds() {
+        return idleTimeoutMinutes * 60;
+    }
+
+    /**
+     * Whether entity tracking of freecam players is centered on their camera.
+     */
+    public boolean isRelevanceEnabled() {
+        return relevanceEnabled;
+    }
+
+    /**
+     * Minutes before the preferences of an idle, offline player are evicted from memory.
+     */
+    public int getStateIdleTtlMinutes() {
+        return stateIdleTtlMinutes;
+    }
+
+    /**
+     * Maximum players whose state is kept in memory.
+     */
+    public int getStateMaxEntries() {
+        return stateMaxEntries;
+    }
+
+    /**
+     * Seconds between metrics log dumps, 0 if disabled.
+     */
+    public int getMetricsLogIntervalSeconds() {
+        return metricsLogIntervalSeconds;
+    }
+
+    private Map<String, Bounds> readBounds(Properties properties) {
+        Map<String, Bounds> bounds = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(BOUNDS_PREFIX)) {
+                continue;
+            }
+            String[] parts = properties.getProperty(key).split(",");
+            if (parts.length != 6) {
+                log().atWarning().log("Freecam config " + key + " needs six values: minX,minY,minZ,maxX,maxY,maxZ.");
+                invalidValues++;
+                continue;
+            }
+            try {
+                double[] values = new double[6];
+                for (int i = 0; i < 6; i++) {
+                    values[i] = Double.parseDouble(parts[i].trim());
+                }
+                bounds.put(key.substring(BOUNDS_PREFIX.length()), new Bounds(
+                    Math.min(values[0], values[3]), Math.min(values[1], values[4]), Math.min(values[2], values[5]),
+                    Math.max(values[0], values[3]), Math.max(values[1], values[4]), Math.max(values[2], values[5])));
+            } catch (NumberFormatException e) {
+                log().atWarning().log("Freecam config " + key + " contains a value that is not a number.");
+                invalidValues++;
+            }
+        }
+        return Collections.unmodifiableMap(bounds);
+    }
+
+    private boolean[] readGuards(Properties properties) {
+        FreecamGuard[] guards = FreecamGuard.values();
+        boolean[] guarded = new boolean[guards.length];
+        for (FreecamGuard guard : guards) {
+            guarded[guard.ordinal()] = readBoolean(properties, GUARD_PREFIX + guard.getKey(), true);
+        }
+        return guarded;
+    }
+
+    private double[] readTriple(Properties properties, String key, double[] defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        String[] parts = value.split(",");
+        if (parts.length != 3) {
+            log().atWarning().log("Freecam config " + key + " needs three values, using the default.");
+            invalidValues++;
+            return defaultValue;
+        }
+        try {
+            double[] values = new double[3];
+            for (int i = 0; i < 3; i++) {
+                values[i] = Double.parseDouble(parts[i].trim());
+            }
+            return values;
+        } catch (NumberFormatException e) {
+            log().atWarning().log("Freecam config " + key + " contains a value that is not a number, using the default.");
+            invalidValues++;
+            return defaultValue;
+        }
+    }
+
+    private float[] readCurve(Properties properties, String key, float[] defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        String[] parts = value.split(",");
+        if (parts.length > MAX_SPEED_LEVELS) {
+            log().atWarning().log("Freecam config " + key + " has more than " + MAX_SPEED_LEVELS + " values, using the default.");
+            invalidValues++;
+            return defaultValue;
+        }
+        try {
+            float[] values = new float[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Float.parseFloat(parts[i].trim());
+                if (!(values[i] > 0 && values[i] <= 1000)) {
+                    log().atWarning().log("Freecam config " + key + " values must be above 0 and at most 1000, using the default.");
+                    invalidValues++;
+                    return defaultValue;
+                }
+            }
+            return values;
+        } catch (NumberFormatException e) {
+            log().atWarning().log("Freecam config " + key + " contains a value that is not a number, using the default.");
+            invalidValues++;
+            return defaultValue;
+        }
+    }
+
+    private boolean readBoolean(Properties properties, String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        String trimmed = value.trim();
+        if (trimmed.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (trimmed.equalsIgnoreCase("false")) {
+            return false;
+        }
+        log().atWarning().log("Freecam config " + key + "=" + value + " is not true or false, using " + defaultValue + ".");
+        invalidValues++;
+        return defaultValue;
+    }
+
+    private double readDouble(Properties properties, String key, double defaultValue, double min, double max) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            double parsed = Double.parseDouble(value.trim());
+            if (!(parsed >= min && parsed <= max)) {
+                log().atWarning().log("Freecam config " + key + "=" + parsed + " is outside " + min + "-" + max + ", using " + defaultValue + ".");
+                invalidValues++;
+                return defaultValue;
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            log().atWarning().log("Freecam config " + key + "=" + value + " is not a number, using " + defaultValue + ".");
+            invalidValues++;
+            return defaultValue;
+        }
+    }
+
+    private int readInt(Properties properties, String key, int defaultValue, int min, int max) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed < min || parsed > max) {
+                log().atWarning().log("Freecam config " + key + "=" + parsed + " is outside " + min + "-" + max + ", using " + defaultValue + ".");
+                invalidValues++;
+                return defaultValue;
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            log().atWarning().log("Freecam config " + key + "=" + value + " is not a number, using " + defaultValue + ".");
+            invalidValues++;
+            return defaultValue;
+        }
+    }
+
+    /**
+     * The server logger, resolved on the first warning so a configuration can
+     * be built where only the plugin's classes are available, as in the
+     * benchmarks and the load test.
+     */
+    private static HytaleLogger log() {
+        return LoggerHolder.LOGGER;
+    }
+
+    private static final class LoggerHolder {
+        static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+    }
+
+    /**
+     * Axis-aligned box the freecam camera must stay inside.
+     */
+    public static final class Bounds {
+        private final double minX, minY, minZ;
+        private final double maxX, maxY, maxZ;
+
+        Bounds(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+        }
+
+        public double clampX(double x) { return Math.max(minX, Math.min(maxX, x)); }
+        public double clampY(double y) { return Math.max(minY, Math.min(maxY, y)); }
+        public double clampZ(double z) { return Math.max(minZ, Math.min(maxZ, z)); }
+    }
+}
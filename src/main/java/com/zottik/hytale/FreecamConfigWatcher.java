@@ -0,0 +1,114 @@
+package com.zottik.hytale;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reloads freecam.properties when it changes on disk.
+ *
+ * A daemon thread blocks on a {@link WatchService} for the plugin's data
+ * directory, so nothing runs on the world threads. Editors often save a
+ * file in several writes, so the file is only read once it has been quiet
+ * for a moment. Other files in the directory (player preferences, the
+ * session journal) are written all the time and do not hold off the
+ * reload. A file that fails validation is ignored and the running
+ * configuration stays in place.
+ */
+public class FreecamConfigWatcher {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final long SETTLE_MS = 250;
+
+    private final Path directory;
+    private final Consumer<FreecamConfig> onReload;
+    private WatchService watchService;
+
+    public FreecamConfigWatcher(Path directory, Consumer<FreecamConfig> onReload) {
+        this.directory = directory;
+        this.onReload = onReload;
+    }
+
+    /**
+     * Start watching. If the directory cannot be watched the configuration
+     * simply stays as loaded.
+     */
+    public void start() {
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.atWarning().log("Cannot watch " + directory + " for config changes, reload disabled: " + e);
+            return;
+        }
+        Thread thread = new Thread(this::run, "Freecam-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop watching.
+     */
+    public void close() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOGGER.atWarning().log("Failed to close config watcher: " + e);
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = touchesConfig(key);
+                if (!key.reset()) {
+                    return; // Directory is gone
+                }
+                if (!changed) {
+                    continue;
+                }
+                // Wait until the file has been quiet for a moment
+                long quietUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SETTLE_MS);
+                long remaining;
+                while ((remaining = quietUntil - System.nanoTime()) > 0
+                        && (key = watchService.poll(remaining, TimeUnit.NANOSECONDS)) != null) {
+                    if (touchesConfig(key)) {
+                        quietUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SETTLE_MS);
+                    }
+                    key.reset();
+                }
+                FreecamConfig config = FreecamConfig.reload(directory);
+                if (config != null) {
+                    onReload.accept(config);
+                    LOGGER.atInfo().log("Reloaded " + FreecamConfig.FILE_NAME + ".");
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private static boolean touchesConfig(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || FreecamConfig.FILE_NAME.equals(String.valueOf(event.context()))) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
@@ -1,14 +1,49 @@
 package com.zottik.hytale;
 
 import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.event.events.player.DrainPlayerFromWorldEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerMouseMotionEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerReadyEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.events.RemoveWorldEvent;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.command.FreecamCameraTemplates;
 import com.zottik.hytale.command.FreecamCommand;
-import com.zottik.hytale.event.FreecamBreakBlockEventSystem;
-import com.zottik.hytale.event.FreecamDamageBlockEventSystem;
+import com.zottik.hytale.component.FreecamComponent;
+import com.zottik.hytale.event.FreecamGuard;
+import com.zottik.hytale.event.FreecamGuardSystem;
+import com.zottik.hytale.event.FreecamLifecycleListener;
+import com.zottik.hytale.event.FreecamSessionRecovery;
+import com.zottik.hytale.follow.FreecamFollowIndex;
+import com.zottik.hytale.metrics.FreecamGuardEvent;
+import com.zottik.hytale.metrics.FreecamMetrics;
+import com.zottik.hytale.metrics.FreecamSettingsBuildEvent;
+import com.zottik.hytale.metrics.FreecamTransitionEvent;
+import com.zottik.hytale.path.FreecamPathPlayback;
+import com.zottik.hytale.relevance.FreecamEntityGridSystem;
+import com.zottik.hytale.relevance.FreecamRelevanceSystem;
+import com.zottik.hytale.storage.FreecamPathStore;
+import com.zottik.hytale.storage.FreecamPreferenceStore;
+import com.zottik.hytale.storage.FreecamSessionJournal;
+import com.zottik.hytale.system.FreecamBatchToggleSystem;
+import com.zottik.hytale.system.FreecamBroadcastSystem;
+import com.zottik.hytale.system.FreecamChunkPrefetchSystem;
+import com.zottik.hytale.system.FreecamIdleSystem;
+import com.zottik.hytale.system.FreecamLeashSystem;
+import com.zottik.hytale.system.FreecamPathRecordSystem;
 
 import javax.annotation.Nonnull;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Freecam for Hytale - A camera mod that allows you to fly around freely.
@@ -16,15 +51,43 @@ import javax.annotation.Nonnull;
  * 
  * Features:
  * - Toggle freecam mode with /freecam or /fc command
- * - Adjustable flight speed (1-10 range) with --speed parameter
+ * - Adjustable flight speed (1-10 by default, configurable) with --speed parameter
  * - Prevents block breaking while in freecam mode
- * - Restores player position when disabling freecam
+ * - Restores player position and game mode when disabling freecam
+ * - Restores players left in freecam by a server crash
+ * - Keeps the camera within a configurable range of the player
+ * - Admin batch toggles for whole servers, worlds or player lists
+ * - Remembers speed and show-player preferences across restarts
+ * - Records and plays back cinematic camera paths
+ * - Follows other players using client-side camera attachment
+ * - Mirrors a director's camera to spectators
  */
 public class FreecamPlugin extends JavaPlugin {
 
     private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+    private static final long STATE_EVICTION_INTERVAL_SECONDS = 60;
+    private static final List<Class<? extends Event>> FLIGHT_RECORDER_EVENTS =
+        List.of(FreecamTransitionEvent.class, FreecamSettingsBuildEvent.class, FreecamGuardEvent.class);
     private static FreecamPlugin instance;
 
+    // Replaced as a whole when the config file changes; read without locking
+    private volatile FreecamConfig config;
+    private volatile FreecamCameraTemplates cameraTemplates;
+    private FreecamConfigWatcher configWatcher;
+    private ScheduledExecutorService ioExecutor;
+    private FreecamPreferenceStore preferenceStore;
+    private FreecamSessionJournal sessionJournal;
+    private FreecamBatchToggleSystem batchToggleSystem;
+    private FreecamLeashSystem leashSystem;
+    private FreecamIdleSystem idleSystem;
+    private FreecamRelevanceSystem relevanceSystem;
+    private FreecamChunkPrefetchSystem chunkPrefetchSystem;
+    private FreecamPathStore pathStore;
+    private FreecamPathRecordSystem pathRecordSystem;
+    private FreecamPathPlayback pathPlayback;
+    private FreecamFollowIndex followIndex;
+    private FreecamBroadcastSystem broadcastSystem;
+
     public FreecamPlugin(@Nonnull JavaPluginInit init) {
         super(init);
         instance = this;
@@ -34,28 +97,287 @@ public class FreecamPlugin extends JavaPlugin {
     @Override
     protected void setup() {
         LOGGER.atInfo().log("Setting up Freecam plugin...");
+
+        applyConfig(FreecamConfig.load(this.getDataDirectory()));
+
+        // Make the freecam event types known to the flight recorder, so they
+        // can be enabled in a recording before any of them has fired
+        for (Class<? extends Event> eventType : FLIGHT_RECORDER_EVENTS) {
+            FlightRecorder.register(eventType);
+        }
+
+        // Swap in a new configuration whenever the file changes
+        this.configWatcher = new FreecamConfigWatcher(this.getDataDirectory(), this::applyConfig);
+        this.configWatcher.start();
+
+        // Background thread for disk I/O, so the world threads never block on it
+        this.ioExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Freecam-IO");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Load saved preferences in the background and persist changes
+        this.preferenceStore = new FreecamPreferenceStore(this.getDataDirectory(), ioExecutor);
+        this.preferenceStore.start();
+
+        // Replay the session journal and restore anyone left in freecam by a crash
+        this.sessionJournal = new FreecamSessionJournal(this.getDataDirectory(), ioExecutor);
+        FreecamSessionRecovery recovery = new FreecamSessionRecovery(sessionJournal, sessionJournal.recover());
+        this.getEventRegistry().registerGlobal(PlayerReadyEvent.class, recovery::onPlayerReady);
+
+        // Load preferences on join, drop state on disconnect and end sessions on world change
+        FreecamLifecycleListener lifecycle = new FreecamLifecycleListener(recovery);
+        this.getEventRegistry().registerGlobal(PlayerReadyEvent.class, lifecycle::onPlayerReady);
+        this.getEventRegistry().registerGlobal(PlayerDisconnectEvent.class, lifecycle::onPlayerDisconnect);
+        this.getEventRegistry().registerGlobal(DrainPlayerFromWorldEvent.class, lifecycle::onDrainFromWorld);
+        this.getEventRegistry().registerGlobal(RemoveWorldEvent.class, lifecycle::onRemoveWorld);
+
+        // Periodically evict the state of idle, offline players
+        ioExecutor.scheduleWithFixedDelay(this::evictIdleState,
+            STATE_EVICTION_INTERVAL_SECONDS, STATE_EVICTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        // Camera paths are saved on the I/O thread and played back on their own thread
+        this.pathStore = new FreecamPathStore(this.getDataDirectory(), ioExecutor);
+        this.pathPlayback = new FreecamPathPlayback(config.getPlaybackRateHz());
         
+        // Detach followers together when the player they follow leaves
+        this.followIndex = new FreecamFollowIndex();
+        this.getEventRegistry().registerGlobal(PlayerDisconnectEvent.class, followIndex::onPlayerDisconnect);
+        this.getEventRegistry().registerGlobal(DrainPlayerFromWorldEvent.class, followIndex::onDrainFromWorld);
+
         // Register freecam command with /fc alias
         this.getCommandRegistry().registerCommand(new FreecamCommand());
         
-        // Register event systems to prevent block interactions during freecam
-        EntityStore.REGISTRY.registerSystem(new FreecamBreakBlockEventSystem());
-        EntityStore.REGISTRY.registerSystem(new FreecamDamageBlockEventSystem());
+        // Register the freecam marker component before the systems that query it
+        FreecamComponent.setComponentType(
+            EntityStore.REGISTRY.registerComponent(FreecamComponent.class, FreecamComponent::new));
+
+        // Register one guard system per guarded interaction to block it during freecam
+        for (FreecamGuard guard : FreecamGuard.values()) {
+            EntityStore.REGISTRY.registerSystem(FreecamGuardSystem.create(guard));
+        }
+
+        // Register the system that applies batch toggles a few per world tick
+        this.batchToggleSystem = new FreecamBatchToggleSystem();
+        EntityStore.REGISTRY.registerSystem(batchToggleSystem);
+
+        // Register the system that keeps freecam cameras near their origin
+        this.leashSystem = new FreecamLeashSystem();
+        EntityStore.REGISTRY.registerSystem(leashSystem);
+
+        // Register the system that ends sessions of idle players
+        this.idleSystem = new FreecamIdleSystem();
+        EntityStore.REGISTRY.registerSystem(idleSystem);
+        this.getEventRegistry().registerGlobal(PlayerMouseMotionEvent.class, idleSystem::onMouseMotion);
+
+        // Register the systems that center entity tracking on freecam cameras
+        this.relevanceSystem = new FreecamRelevanceSystem();
+        EntityStore.REGISTRY.registerSystem(new FreecamEntityGridSystem(relevanceSystem));
+        EntityStore.REGISTRY.registerSystem(relevanceSystem);
+
+        // Register the system that streams chunks ahead of moving freecam cameras
+        this.chunkPrefetchSystem = new FreecamChunkPrefetchSystem();
+        EntityStore.REGISTRY.registerSystem(chunkPrefetchSystem);
+
+        // Register the system that records camera paths
+        this.pathRecordSystem = new FreecamPathRecordSystem();
+        EntityStore.REGISTRY.registerSystem(pathRecordSystem);
+
+        // Register the system that mirrors director cameras to viewers
+        this.broadcastSystem = new FreecamBroadcastSystem();
+        EntityStore.REGISTRY.registerSystem(broadcastSystem);
+        
+        // Optionally log the metrics report periodically
+        int metricsInterval = config.getMetricsLogIntervalSeconds();
+        if (metricsInterval > 0) {
+            ioExecutor.scheduleAtFixedRate(() -> {
+                for (String line : FreecamMetrics.getInstance().report()) {
+                    LOGGER.atInfo().log("[stats] " + line);
+                }
+            }, metricsInterval, metricsInterval, TimeUnit.SECONDS);
+        }
         
         LOGGER.atInfo().log("Freecam plugin setup complete!");
         LOGGER.atInfo().log("Use /freecam or /fc to toggle freecam mode.");
-        LOGGER.atInfo().log("Use /freecam --speed <1-10> to adjust camera speed.");
+        LOGGER.atInfo().log("Use /freecam --speed <1-" + config.getSpeedLevels() + "> to adjust camera speed.");
     }
 
     @Override
     protected void shutdown() {
+        if (configWatcher != null) {
+            configWatcher.close();
+        }
+        if (pathPlayback != null) {
+            pathPlayback.shutdown();
+        }
+        if (preferenceStore != null) {
+            preferenceStore.close();
+        }
+        if (sessionJournal != null) {
+            sessionJournal.close();
+        }
+        if (ioExecutor != null) {
+            ioExecutor.shutdown();
+        }
+        for (Class<? extends Event> eventType : FLIGHT_RECORDER_EVENTS) {
+            FlightRecorder.unregister(eventType);
+        }
         LOGGER.atInfo().log("Freecam plugin shut down.");
     }
 
+    /**
+     * Publish a new configuration, together with the camera templates and
+     * speed range derived from it. The templates are published first, so a
+     * reader that sees the new configuration also sees its templates.
+     */
+    private void applyConfig(FreecamConfig config) {
+        this.cameraTemplates = new FreecamCameraTemplates(config);
+        FreecamState.getInstance().configureSpeed(config.getSpeedLevels(), config.getDefaultSpeed());
+        this.config = config;
+    }
+
+    /**
+     * Evict the state of idle, offline players, with the limits of the
+     * current configuration.
+     */
+    private void evictIdleState() {
+        FreecamConfig current = config;
+        FreecamState.getInstance().evictIdle(
+            TimeUnit.MINUTES.toNanos(current.getStateIdleTtlMinutes()), current.getStateMaxEntries(),
+            playerId -> Universe.get().getPlayer(playerId) != null);
+    }
+
+    /**
+     * Drop all freecam state of a world, e.g. when it unloads. Players still
+     * in freecam there are dropped without restoring them.
+     */
+    public void dropWorld(World world) {
+        int sessions = FreecamState.getInstance().dropWorld(world);
+        for (int i = 0; i < sessions; i++) {
+            FreecamMetrics.getInstance().recordSessionDropped();
+        }
+        batchToggleSystem.dropWorld(world);
+        leashSystem.dropWorld(world);
+        idleSystem.dropWorld(world);
+        relevanceSystem.dropWorld(world);
+        chunkPrefetchSystem.dropWorld(world);
+        pathRecordSystem.dropWorld(world);
+        broadcastSystem.dropWorld(world);
+        if (sessions > 0) {
+            LOGGER.atInfo().log("Dropped " + sessions + " freecam sessions of removed world " + world.getName() + ".");
+        }
+    }
+
     /**
      * Get the singleton instance of the plugin.
      */
     public static FreecamPlugin getInstance() {
         return instance;
     }
+
+    /**
+     * Get the plugin configuration.
+     */
+    public FreecamConfig getFreecamConfig() {
+        return config;
+    }
+
+    /**
+     * Get the background executor used for disk I/O.
+     */
+    public ScheduledExecutorService getIoExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * Get the store that persists player preferences.
+     */
+    public FreecamPreferenceStore getPreferenceStore() {
+        return preferenceStore;
+    }
+
+    /**
+     * Get the journal of freecam session transitions.
+     */
+    public FreecamSessionJournal getSessionJournal() {
+        return sessionJournal;
+    }
+
+    /**
+     * Get the system that applies queued batch toggles.
+     */
+    public FreecamBatchToggleSystem getBatchToggleSystem() {
+        return batchToggleSystem;
+    }
+
+    /**
+     * Get the system that enforces the camera leash and world bounds.
+     */
+    public FreecamLeashSystem getLeashSystem() {
+        return leashSystem;
+    }
+
+    /**
+     * Get the system that ends sessions of idle players.
+     */
+    public FreecamIdleSystem getIdleSystem() {
+        return idleSystem;
+    }
+
+    /**
+     * Get the system that centers entity tracking on freecam cameras.
+     */
+    public FreecamRelevanceSystem getRelevanceSystem() {
+        return relevanceSystem;
+    }
+
+    /**
+     * Get the system that prefetches chunks ahead of freecam cameras.
+     */
+    public FreecamChunkPrefetchSystem getChunkPrefetchSystem() {
+        return chunkPrefetchSystem;
+    }
+
+    /**
+     * Get the store for recorded camera paths.
+     */
+    public FreecamPathStore getPathStore() {
+        return pathStore;
+    }
+
+    /**
+     * Get the system that records camera paths.
+     */
+    public FreecamPathRecordSystem getPathRecordSystem() {
+        return pathRecordSystem;
+    }
+
+    /**
+     * Get the camera path player.
+     */
+    public FreecamPathPlayback getPathPlayback() {
+        return pathPlayback;
+    }
+
+    /**
+     * Get the index of which players follow which target.
+     */
+    public FreecamFollowIndex getFollowIndex() {
+        return followIndex;
+    }
+
+    /**
+     * Get the system that mirrors director cameras to viewers.
+     */
+    public FreecamBroadcastSystem getBroadcastSystem() {
+        return broadcastSystem;
+    }
+
+    /**
+     * Get the precomputed freecam camera settings.
+     */
+    public FreecamCameraTemplates getCameraTemplates() {
+        return cameraTemplates;
+    }
 }
@@ -1,24 +1,55 @@
 package com.zottik.hytale;
 
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Predicate;
 
 /**
  * Manages freecam state for all players.
- * Tracks who has freecam enabled, their settings, and original positions.
+ * Tracks who has freecam enabled and their settings. Open sessions and
+ * their original positions live in per-world {@link FreecamWorldState}
+ * shards, owned by each world's thread.
+ *
+ * All per-player state lives in a single {@link FreecamData} slot, so every
+ * query is one hash lookup. Reads never create entries and never box values;
+ * slots are only allocated the first time a player's state is written.
+ *
+ * Slots are removed when a player disconnects, and {@link #evictIdle} drops
+ * slots that have not been written for a while, so the map stays bounded on
+ * servers with a lot of player churn. Evicted preferences are restored from
+ * the preference store the next time the player joins.
+ *
+ * The original positions moved to {@link com.zottik.hytale.component.FreecamComponent},
+ * so FreecamData no longer has origin accessors. The old enable/disable
+ * methods remain as deprecated shims that only publish the enabled flag.
  */
 public class FreecamState {
 
     private static final FreecamState INSTANCE = new FreecamState();
-    private static final int DEFAULT_SPEED = 5;
     private static final int MIN_SPEED = 1;
-    private static final int MAX_SPEED = 10;
+    private static final int NO_SPEED = 0; // Player never set a speed, use the configured default
+    private static final boolean DEFAULT_SHOW_PLAYER = true; // Default: show player (third-person)
+
+    private static final AtomicLongFieldUpdater<FreecamData> TOGGLE_ARRIVAL =
+        AtomicLongFieldUpdater.newUpdater(FreecamData.class, "toggleArrivalNanos");
 
-    // Player UUID -> FreecamData
+    // Player UUID -> FreecamData (enabled flag and preferences)
     private final Map<UUID, FreecamData> playerStates = new ConcurrentHashMap<>();
-    private final Map<UUID, Integer> playerSpeeds = new ConcurrentHashMap<>();
-    private final Map<UUID, Boolean> playerShowPlayer = new ConcurrentHashMap<>();
+
+    // World -> sessions of the players in that world
+    private final Map<World, FreecamWorldState> worlds = new ConcurrentHashMap<>();
+
+    // Speed range from the plugin configuration, replaced when it is reloaded
+    private volatile int maxSpeed = 10;
+    private volatile int defaultSpeed = 5;
 
     private FreecamState() {}
 
@@ -27,38 +58,126 @@ public class FreecamState {
     }
 
     /**
-     * Check if a player has freecam enabled.
+     * Set the highest speed level and the speed of players who never set
+     * one. Stored speeds above the new maximum read as the maximum.
+     */
+    public void configureSpeed(int maxSpeed, int defaultSpeed) {
+        this.maxSpeed = maxSpeed;
+        this.defaultSpeed = defaultSpeed;
+    }
+
+    /**
+     * Check if a player has freecam enabled, from any thread. On the
+     * player's world thread {@link FreecamWorldState#isFreecamEnabled} is
+     * the authoritative answer.
      */
     public boolean isFreecamEnabled(UUID playerId) {
         FreecamData data = playerStates.get(playerId);
-        return data != null && data.isEnabled();
+        return data != null && data.enabled;
+    }
+
+    /**
+     * Get the freecam sessions of a world. The shard may only be used on
+     * that world's thread.
+     */
+    public FreecamWorldState getWorldState(World world) {
+        FreecamWorldState shard = worlds.get(world);
+        if (shard != null) {
+            return shard;
+        }
+        return worlds.computeIfAbsent(world, w -> new FreecamWorldState());
     }
 
     /**
-     * Enable freecam for a player, storing their original position.
+     * Drop all freecam sessions of a world, e.g. when it unloads, returning
+     * how many players were still in freecam there.
      */
+    public int dropWorld(World world) {
+        FreecamWorldState shard = worlds.remove(world);
+        if (shard == null) {
+            return 0;
+        }
+        for (UUID playerId : shard.players()) {
+            setEnabled(playerId, false);
+        }
+        return shard.size();
+    }
+
+    /**
+     * Publish a player's enabled flag for cross-thread readers. Never creates
+     * a slot for disabling.
+     */
+    void setEnabled(UUID playerId, boolean enabled) {
+        FreecamData data = enabled ? slot(playerId) : playerStates.get(playerId);
+        if (data != null) {
+            data.enabled = enabled;
+        }
+    }
+
+    /**
+     * Take a token from the player's toggle bucket, which holds up to burst
+     * tokens and regains one every refillNanos. Returns false if the bucket
+     * is empty. Lock-free; a refill interval of 0 disables the limit.
+     */
+    public boolean tryAcquireToggle(UUID playerId, long refillNanos, int burst) {
+        if (refillNanos <= 0) {
+            return true;
+        }
+        FreecamData data = slot(playerId);
+        long now = System.nanoTime();
+        // GCRA: the bucket is empty once the theoretical arrival time is
+        // more than burst - 1 intervals ahead of now
+        long limit = now + refillNanos * (burst - 1);
+        while (true) {
+            long arrival = data.toggleArrivalNanos;
+            long base = arrival - now > 0 ? arrival : now;
+            if (base - limit > 0) {
+                return false;
+            }
+            if (TOGGLE_ARRIVAL.compareAndSet(data, arrival, base + refillNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Enable freecam for a player.
+     *
+     * @deprecated Sessions are opened through the world's
+     * {@link FreecamWorldState#enableFreecam}, and the original position is
+     * kept on the player's FreecamComponent. This only publishes the
+     * enabled flag and ignores the position.
+     */
+    @Deprecated
     public void enableFreecam(UUID playerId, double x, double y, double z, float yaw, float pitch) {
-        FreecamData data = playerStates.computeIfAbsent(playerId, id -> new FreecamData());
-        data.setEnabled(true);
-        data.setOriginalPosition(x, y, z);
-        data.setOriginalRotation(yaw, pitch);
+        setEnabled(playerId, true);
     }
 
     /**
      * Disable freecam for a player.
+     *
+     * @deprecated Sessions are closed through the world's
+     * {@link FreecamWorldState#disableFreecam}. This only clears the
+     * enabled flag.
      */
+    @Deprecated
     public void disableFreecam(UUID playerId) {
-        FreecamData data = playerStates.get(playerId);
-        if (data != null) {
-            data.setEnabled(false);
-        }
+        setEnabled(playerId, false);
     }
 
     /**
-     * Get freecam data for a player.
+     * Get freecam data for a player, creating an empty slot on first access.
+     * Prefer the getters on FreecamState, which never create state.
      */
     public FreecamData getData(UUID playerId) {
-        return playerStates.computeIfAbsent(playerId, id -> new FreecamData());
+        return slot(playerId);
+    }
+
+    /**
+     * Get freecam data for a player, or null if they have no state.
+     */
+    FreecamData findData(UUID playerId) {
+        return playerStates.get(playerId);
     }
 
     /**
@@ -66,37 +185,120 @@ public class FreecamState {
      */
     public void removePlayer(UUID playerId) {
         playerStates.remove(playerId);
-        playerSpeeds.remove(playerId);
-        playerShowPlayer.remove(playerId);
     }
 
     /**
      * Get freecam speed for a player.
      */
     public int getSpeed(UUID playerId) {
-        return playerSpeeds.getOrDefault(playerId, DEFAULT_SPEED);
+        FreecamData data = playerStates.get(playerId);
+        int speed = data != null ? data.speed : NO_SPEED;
+        return speed == NO_SPEED ? defaultSpeed : Math.min(speed, maxSpeed);
+    }
+
+    /**
+     * Get the speed a player chose, or 0 if they never set one and follow
+     * the configured default.
+     */
+    public int getChosenSpeed(UUID playerId) {
+        FreecamData data = playerStates.get(playerId);
+        return data != null ? data.speed : NO_SPEED;
     }
 
     /**
      * Set freecam speed for a player.
      */
     public void setSpeed(UUID playerId, int speed) {
-        int clamped = clampSpeed(speed);
-        playerSpeeds.put(playerId, clamped);
+        slot(playerId).speed = clampSpeed(speed);
     }
 
     /**
      * Get show-player preference for a player.
      */
     public boolean getShowPlayer(UUID playerId) {
-        return playerShowPlayer.getOrDefault(playerId, true); // Default: show player (third-person)
+        FreecamData data = playerStates.get(playerId);
+        return data != null ? data.showPlayer : DEFAULT_SHOW_PLAYER;
     }
 
     /**
      * Set show-player preference for a player.
      */
     public void setShowPlayer(UUID playerId, boolean showPlayer) {
-        playerShowPlayer.put(playerId, showPlayer);
+        slot(playerId).showPlayer = showPlayer;
+    }
+
+    /**
+     * Restore saved preferences for a player, unless they already have state
+     * (a change made since startup wins over the saved value). A speed of 0
+     * means the player never chose one.
+     */
+    public void restorePreferences(UUID playerId, int speed, boolean showPlayer) {
+        playerStates.computeIfAbsent(playerId, id -> {
+            FreecamData data = new FreecamData();
+            data.speed = speed == NO_SPEED ? NO_SPEED : clampSpeed(speed);
+            data.showPlayer = showPlayer;
+            return data;
+        });
+    }
+
+    /**
+     * Number of players with state.
+     */
+    public int size() {
+        return playerStates.size();
+    }
+
+    /**
+     * Drop slots of players who are not in freecam and whose state has not
+     * been written for longer than the idle time, then, if more than
+     * maxEntries slots remain, the least recently written ones. Players in
+     * freecam and pinned players (e.g. those online) are never dropped, so
+     * the map only exceeds maxEntries by that many slots.
+     * Returns the number of slots removed.
+     */
+    public int evictIdle(long idleNanos, int maxEntries, Predicate<UUID> pinned) {
+        long now = System.nanoTime();
+        int evicted = 0;
+        Iterator<Map.Entry<UUID, FreecamData>> iterator = playerStates.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, FreecamData> entry = iterator.next();
+            FreecamData data = entry.getValue();
+            if (!data.enabled && now - data.lastWriteNanos > idleNanos && !pinned.test(entry.getKey())) {
+                iterator.remove();
+                evicted++;
+            }
+        }
+
+        int excess = playerStates.size() - maxEntries;
+        if (excess > 0) {
+            List<Map.Entry<UUID, FreecamData>> candidates = new ArrayList<>();
+            for (Map.Entry<UUID, FreecamData> entry : playerStates.entrySet()) {
+                if (!entry.getValue().enabled && !pinned.test(entry.getKey())) {
+                    candidates.add(entry);
+                }
+            }
+            candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastWriteNanos));
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                Map.Entry<UUID, FreecamData> entry = candidates.get(i);
+                if (playerStates.remove(entry.getKey(), entry.getValue())) {
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Look up a player's slot, only falling back to the allocating
+     * computeIfAbsent path when the player has no slot yet.
+     */
+    private FreecamData slot(UUID playerId) {
+        FreecamData data = playerStates.get(playerId);
+        if (data == null) {
+            data = playerStates.computeIfAbsent(playerId, id -> new FreecamData());
+        }
+        data.lastWriteNanos = System.nanoTime();
+        return data;
     }
 
     /**
@@ -104,7 +306,7 @@ public class FreecamState {
      */
     private int clampSpeed(int speed) {
         if (speed < MIN_SPEED) return MIN_SPEED;
-        if (speed > MAX_SPEED) return MAX_SPEED;
+        if (speed > maxSpeed) return maxSpeed;
         return speed;
     }
 
@@ -112,35 +314,40 @@ public class FreecamState {
      * Data class holding freecam state for a single player.
      */
     public static class FreecamData {
-        private boolean enabled = false;
-        
-        // Original position when freecam was enabled
-        private double originalX, originalY, originalZ;
-        private float originalYaw, originalPitch;
+        private volatile boolean enabled = false;
+
+        // Preferences, kept in the same slot as the session state
+        private volatile int speed = NO_SPEED;
+        private volatile boolean showPlayer = DEFAULT_SHOW_PLAYER;
+
+        // Last time this slot was written, for idle eviction
+        private volatile long lastWriteNanos = System.nanoTime();
+
+        // Toggle rate limit: when the bucket will be full again (GCRA)
+        private volatile long toggleArrivalNanos = System.nanoTime();
 
         public boolean isEnabled() {
             return enabled;
         }
 
+        /**
+         * @deprecated Use the world's {@link FreecamWorldState}, which
+         * keeps this flag in step with the open sessions.
+         */
+        @Deprecated
         public void setEnabled(boolean enabled) {
             this.enabled = enabled;
         }
 
-        public void setOriginalPosition(double x, double y, double z) {
-            this.originalX = x;
-            this.originalY = y;
-            this.originalZ = z;
+        /**
+         * The speed the player set, or 0 if they never set one.
+         */
+        public int getSpeed() {
+            return speed;
         }
 
-        public void setOriginalRotation(float yaw, float pitch) {
-            this.originalYaw = yaw;
-            this.originalPitch = pitch;
+        public boolean isShowPlayer() {
+            return showPlayer;
         }
-
-        public double getOriginalX() { return originalX; }
-        public double getOriginalY() { return originalY; }
-        public double getOriginalZ() { return originalZ; }
-        public float getOriginalYaw() { return originalYaw; }
-        public float getOriginalPitch() { return originalPitch; }
     }
 }
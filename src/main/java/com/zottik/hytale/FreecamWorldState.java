@@ -0,0 +1,124 @@
+package com.zottik.hytale;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Which players in one world are in freecam, and their pending toggles.
+ *
+ * A shard is owned by its world's thread: every method must be called on
+ * that thread, so its maps need no synchronization. A player moving to
+ * another world is handed off explicitly with {@link #handOff}, and the
+ * whole shard is dropped with {@link FreecamState#dropWorld} when the world
+ * unloads. The session itself (saved origin, settings, camera) lives only
+ * in the player's FreecamComponent.
+ */
+public class FreecamWorldState {
+
+    // Players in freecam in this world
+    private final Set<UUID> players = new HashSet<>();
+
+    // Player UUID -> toggle waiting out the debounce window
+    private final Map<UUID, PendingToggle> pendingToggles = new HashMap<>();
+    private long nextToggleToken;
+
+    FreecamWorldState() {}
+
+    /**
+     * Check if a player in this world has freecam enabled.
+     */
+    public boolean isFreecamEnabled(UUID playerId) {
+        return players.contains(playerId);
+    }
+
+    /**
+     * Mark a player as in freecam.
+     */
+    public void enableFreecam(UUID playerId) {
+        players.add(playerId);
+        // Publish last so other threads that see enabled also see the membership
+        FreecamState.getInstance().setEnabled(playerId, true);
+    }
+
+    /**
+     * Mark a player as out of freecam, returning whether they were in it.
+     */
+    public boolean disableFreecam(UUID playerId) {
+        boolean removed = players.remove(playerId);
+        FreecamState.getInstance().setEnabled(playerId, false);
+        return removed;
+    }
+
+    /**
+     * Release a player who is leaving this world, returning whether they
+     * were in freecam here.
+     */
+    public boolean handOff(UUID playerId) {
+        pendingToggles.remove(playerId);
+        return disableFreecam(playerId);
+    }
+
+    /**
+     * Get the state a pending debounced toggle will switch a player to, or
+     * null if none is pending.
+     */
+    public Boolean getPendingToggle(UUID playerId) {
+        PendingToggle pending = pendingToggles.get(playerId);
+        return pending != null ? pending.enable : null;
+    }
+
+    /**
+     * Record a debounced toggle, replacing any pending one. Returns a token
+     * to claim it with {@link #takePendingToggle}.
+     */
+    public long setPendingToggle(UUID playerId, boolean enable) {
+        long token = ++nextToggleToken;
+        pendingToggles.put(playerId, new PendingToggle(enable, token));
+        return token;
+    }
+
+    /**
+     * Cancel a player's pending toggle.
+     */
+    public void clearPendingToggle(UUID playerId) {
+        pendingToggles.remove(playerId);
+    }
+
+    /**
+     * Claim a pending toggle if it is still the one the token was issued
+     * for, returning its target state, or null if it was cancelled or replaced.
+     */
+    public Boolean takePendingToggle(UUID playerId, long token) {
+        PendingToggle pending = pendingToggles.get(playerId);
+        if (pending == null || pending.token != token) {
+            return null;
+        }
+        pendingToggles.remove(playerId);
+        return pending.enable;
+    }
+
+    /**
+     * Number of players in freecam in this world.
+     */
+    public int size() {
+        return players.size();
+    }
+
+    Collection<UUID> players() {
+        return players;
+    }
+
+    private static final class PendingToggle {
+        private final boolean enable;
+        private final long token;
+
+        private PendingToggle(boolean enable, long token) {
+            this.enable = enable;
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.zottik.hytale.command;
+
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Toggle freecam for every online player.
+ * Usage: /freecam all on|off
+ */
+public class FreecamAllCommand extends FreecamBatchCommand {
+
+    private final RequiredArg<Boolean> modeArg;
+
+    public FreecamAllCommand() {
+        super("all", "Toggle freecam for all players. Usage: /freecam all on|off");
+        this.modeArg = withRequiredArg("mode", "on or off", new FreecamToggleArgumentType());
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        boolean enable = context.get(modeArg);
+        int players = 0;
+        int worlds = 0;
+        for (World world : Universe.get().getWorlds().values()) {
+            int queued = queueWorld(world, playerRef -> true, enable);
+            if (queued > 0) {
+                players += queued;
+                worlds++;
+            }
+        }
+        sendQueued(context, players, worlds, enable);
+    }
+}
@@ -0,0 +1,51 @@
+package com.zottik.hytale.command;
+
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.FreecamState;
+import com.zottik.hytale.system.FreecamBatchToggleSystem;
+
+import java.util.function.Predicate;
+
+/**
+ * Base class for the admin subcommands that toggle freecam for many players
+ * at once. Players are queued per world and the toggles are applied on each
+ * world's thread by {@link FreecamBatchToggleSystem}, a few per tick.
+ */
+abstract class FreecamBatchCommand extends CommandBase {
+
+    FreecamBatchCommand(String name, String description) {
+        super(name, description);
+        this.setPermissionGroup(GameMode.Creative); // Admin only
+    }
+
+    /**
+     * Queue a toggle for every player in the world that matches the filter,
+     * returning how many were queued.
+     */
+    static int queueWorld(World world, Predicate<PlayerRef> filter, boolean enable) {
+        FreecamBatchToggleSystem batch = FreecamPlugin.getInstance().getBatchToggleSystem();
+        FreecamState state = FreecamState.getInstance();
+        int queued = 0;
+        for (PlayerRef playerRef : world.getPlayerRefs()) {
+            if (filter.test(playerRef) && state.isFreecamEnabled(playerRef.getUuid()) != enable) {
+                batch.enqueue(world, playerRef, enable);
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Report how many toggles were queued.
+     */
+    static void sendQueued(CommandContext context, int players, int worlds, boolean enable) {
+        context.sendMessage(Message.raw("Queued freecam " + (enable ? "on" : "off") + " for " + players
+            + " players in " + worlds + " worlds.").color("gray"));
+    }
+}
@@ -0,0 +1,238 @@
+package com.zottik.hytale.command;
+
+import com.hypixel.hytale.math.vector.Transform;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hypixel.hytale.protocol.ApplyLookType;
+import com.hypixel.hytale.protocol.ApplyMovementType;
+import com.hypixel.hytale.protocol.AttachedToType;
+import com.hypixel.hytale.protocol.CanMoveType;
+import com.hypixel.hytale.protocol.ClientCameraView;
+import com.hypixel.hytale.protocol.Direction;
+import com.hypixel.hytale.protocol.MouseInputTargetType;
+import com.hypixel.hytale.protocol.MouseInputType;
+import com.hypixel.hytale.protocol.MovementForceRotationType;
+import com.hypixel.hytale.protocol.Position;
+import com.hypixel.hytale.protocol.PositionDistanceOffsetType;
+import com.hypixel.hytale.protocol.PositionType;
+import com.hypixel.hytale.protocol.RotationType;
+import com.hypixel.hytale.protocol.ServerCameraSettings;
+import com.hypixel.hytale.protocol.Vector2f;
+import com.hypixel.hytale.protocol.packets.camera.SetServerCamera;
+import com.zottik.hytale.FreecamConfig;
+import com.zottik.hytale.metrics.FreecamSettingsBuildEvent;
+
+/**
+ * Precomputed freecam camera settings.
+ *
+ * Everything in the freecam camera settings except position and rotation
+ * depends only on (speed, showPlayer) and the configuration, so one
+ * template per combination is built up front. A new set is built whenever
+ * the configuration is reloaded. Per-player settings copy a template and only allocate the
+ * position and rotation. The copies share the template's nested protocol
+ * objects, which are never modified after construction.
+ */
+public class FreecamCameraTemplates {
+
+    // Disabling the custom camera is the same packet for every player
+    private final SetServerCamera disablePacket = new SetServerCamera(ClientCameraView.Custom, false, null);
+
+    // Indexed by (speed - 1) * 2 + (showPlayer ? 1 : 0)
+    private final ServerCameraSettings[] templates;
+
+    // Offsets from a followed entity, shared by every follow camera
+    private final Position followPositionOffset;
+    private final Direction followRotationOffset;
+
+    public FreecamCameraTemplates(FreecamConfig config) {
+        this.templates = new ServerCameraSettings[config.getSpeedLevels() * 2];
+        for (int speed = 1; speed <= config.getSpeedLevels(); speed++) {
+            templates[index(speed, false)] = buildFreecamSettings(0.0, 0.0, 0.0, 0.0f, 0.0f, 0.0f, config, speed, false);
+            templates[index(speed, true)] = buildFreecamSettings(0.0, 0.0, 0.0, 0.0f, 0.0f, 0.0f, config, speed, true);
+        }
+        double[] positionOffset = config.getFollowPositionOffset();
+        float[] rotationOffset = config.getFollowRotationOffset();
+        this.followPositionOffset = new Position(positionOffset[0], positionOffset[1], positionOffset[2]);
+        this.followRotationOffset = new Direction(rotationOffset[0], rotationOffset[1], rotationOffset[2]);
+    }
+
+    /**
+     * Build camera settings for a player from the matching template, stamped
+     * with the given camera position and rotation.
+     */
+    public ServerCameraSettings create(Transform transform, Vector3f headRotation, int speed, boolean showPlayer) {
+        return create(
+            transform.getPosition().x,
+            transform.getPosition().y,
+            transform.getPosition().z,
+            headRotation.getYaw(),
+            headRotation.getPitch(),
+            headRotation.getRoll(),
+            speed,
+            showPlayer
+        );
+    }
+
+    /**
+     * Build camera settings for a player from the matching template, stamped
+     * with the given camera position and rotation.
+     */
+    public ServerCameraSettings create(double x, double y, double z, float yaw, float pitch, float roll,
+                                       int speed, boolean showPlayer) {
+        FreecamSettingsBuildEvent trace = new FreecamSettingsBuildEvent();
+        trace.begin();
+        ServerCameraSettings settings = copy(templates[index(speed, showPlayer)]);
+        settings.position = new Position(x, y, z);
+        settings.rotation = new Direction(yaw, pitch, roll);
+        commit(trace, speed, showPlayer, false);
+        return settings;
+    }
+
+    /**
+     * Build camera settings that attach the camera to an entity, so the
+     * client tracks it without any further packets from the server. The
+     * offsets come from the configuration.
+     */
+    public ServerCameraSettings createFollow(int entityNetworkId, int speed, boolean showPlayer) {
+        FreecamSettingsBuildEvent trace = new FreecamSettingsBuildEvent();
+        trace.begin();
+        ServerCameraSettings template = templates[index(speed, showPlayer)];
+        ServerCameraSettings settings = copy(template);
+        settings.attachedToType = AttachedToType.EntityId;
+        settings.attachedToEntityId = entityNetworkId;
+        settings.positionOffset = followPositionOffset;
+        settings.rotationOffset = followRotationOffset;
+        settings.positionType = PositionType.AttachedToPlusOffset;
+        settings.rotationType = RotationType.AttachedToPlusOffset;
+        settings.position = template.position;
+        settings.rotation = template.rotation;
+        commit(trace, speed, showPlayer, true);
+        return settings;
+    }
+
+    /**
+     * Build ServerCameraSettings for freecam mode with speed control.
+     * Based on Riloox's implementation with adjustable movement multipliers.
+     * Used to build the templates; the speed curve and lerp speeds come from
+     * the configuration.
+     */
+    static ServerCameraSettings buildFreecamSettings(double x, double y, double z, float yaw, float pitch, float roll,
+                                                     FreecamConfig config, int speed, boolean showPlayer) {
+        ServerCameraSettings settings = new ServerCameraSettings();
+        
+        // Basic settings
+        settings.positionLerpSpeed = config.getCameraPositionLerpSpeed();
+        settings.rotationLerpSpeed = config.getCameraRotationLerpSpeed();
+        settings.speedModifier = 1.0f;
+        settings.allowPitchControls = true;
+        settings.displayCursor = false;
+        settings.displayReticle = false;
+        settings.mouseInputTargetType = MouseInputTargetType.Any;
+        settings.sendMouseMotion = true;
+        settings.skipCharacterPhysics = true;
+        settings.isFirstPerson = !showPlayer;  // First-person hides player, third-person shows player
+        settings.movementForceRotationType = MovementForceRotationType.CameraRotation;
+        settings.movementForceRotation = new Direction(0.0f, 0.0f, 0.0f);
+        
+        // Attachment settings
+        settings.attachedToType = AttachedToType.None;
+        settings.attachedToEntityId = 0;
+        settings.eyeOffset = true;
+        settings.positionDistanceOffsetType = PositionDistanceOffsetType.DistanceOffset;
+        settings.positionOffset = new Position(0.0, 0.0, 0.0);
+        settings.rotationOffset = new Direction(0.0f, 0.0f, 0.0f);
+        
+        // Set camera position and rotation
+        settings.positionType = PositionType.Custom;
+        settings.rotationType = RotationType.Custom;
+        settings.position = new Position(x, y, z);
+        settings.rotation = new Direction(yaw, pitch, roll);
+        
+        // Movement settings - this is where speed control happens
+        settings.canMoveType = CanMoveType.Always;
+        settings.applyMovementType = ApplyMovementType.Position;
+        
+        // Speed multipliers from the configured speed curve
+        float horizontal = config.getSpeedHorizontal(speed);
+        float vertical = config.getSpeedVertical(speed);
+        settings.movementMultiplier = new com.hypixel.hytale.protocol.Vector3f(horizontal, vertical, horizontal);
+        
+        // Look settings
+        settings.applyLookType = ApplyLookType.Rotation;
+        settings.lookMultiplier = new Vector2f(1.0f, 1.0f);
+        settings.mouseInputType = MouseInputType.LookAtTarget;
+        settings.mouseInputTargetType = MouseInputTargetType.Any;
+        
+        // Plane normal for movement
+        settings.planeNormal = new com.hypixel.hytale.protocol.Vector3f(0.0f, 1.0f, 0.0f);
+        
+        return settings;
+    }
+
+    private static void commit(FreecamSettingsBuildEvent trace, int speed, boolean showPlayer, boolean follow) {
+        trace.end();
+        if (trace.shouldCommit()) {
+            trace.speed = speed;
+            trace.showPlayer = showPlayer;
+            trace.follow = follow;
+            trace.commit();
+        }
+    }
+
+    /**
+     * Copy a template. Position and rotation are left for the caller to set.
+     */
+    private static ServerCameraSettings copy(ServerCameraSettings template) {
+        ServerCameraSettings settings = new ServerCameraSettings();
+
+        settings.positionLerpSpeed = template.positionLerpSpeed;
+        settings.rotationLerpSpeed = template.rotationLerpSpeed;
+        settings.speedModifier = template.speedModifier;
+        settings.allowPitchControls = template.allowPitchControls;
+        settings.displayCursor = template.displayCursor;
+        settings.displayReticle = template.displayReticle;
+        settings.sendMouseMotion = template.sendMouseMotion;
+        settings.skipCharacterPhysics = template.skipCharacterPhysics;
+        settings.isFirstPerson = template.isFirstPerson;
+        settings.movementForceRotationType = template.movementForceRotationType;
+        settings.movementForceRotation = template.movementForceRotation;
+
+        settings.attachedToType = template.attachedToType;
+        settings.attachedToEntityId = template.attachedToEntityId;
+        settings.eyeOffset = template.eyeOffset;
+        settings.positionDistanceOffsetType = template.positionDistanceOffsetType;
+        settings.positionOffset = template.positionOffset;
+        settings.rotationOffset = template.rotationOffset;
+
+        settings.positionType = template.positionType;
+        settings.rotationType = template.rotationType;
+
+        settings.canMoveType = template.canMoveType;
+        settings.applyMovementType = template.applyMovementType;
+        settings.movementMultiplier = template.movementMultiplier;
+
+        settings.applyLookType = template.applyLookType;
+        settings.lookMultiplier = template.lookMultiplier;
+        settings.mouseInputType = template.mouseInputType;
+        settings.mouseInputTargetType = template.mouseInputTargetType;
+
+        settings.planeNormal = template.planeNormal;
+
+        return settings;
+    }
+
+    /**
+     * Shared packet that turns the custom camera off.
+     */
+    public SetServerCamera getDisablePacket() {
+        return disablePacket;
+    }
+
+    /**
+     * Template index for a speed, clamped to the levels this set was built
+     * with, since sessions may outlive a config reload that removed levels.
+     */
+    private int index(int speed, boolean showPlayer) {
+        int level = Math.max(1, Math.min(speed, templates.length / 2));
+        return (level - 1) * 2 + (showPlayer ? 1 : 0);
+    }
+}
@@ -15,18 +15,33 @@ import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
+import com.zottik.hytale.FreecamConfig;
+import com.zottik.hytale.FreecamPlugin;
 import com.zottik.hytale.FreecamState;
-import com.zottik.hytale.FreecamState.FreecamData;
+import com.zottik.hytale.FreecamWorldState;
+import com.zottik.hytale.component.FreecamCamera;
+import com.zottik.hytale.component.FreecamComponent;
+import com.zottik.hytale.metrics.FreecamMetrics;
+import com.zottik.hytale.metrics.FreecamTransitionEvent;
 
 import javax.annotation.Nonnull;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main command to toggle freecam mode with optional speed control.
  * Usage: 
  *   /freecam - Toggle freecam on/off
- *   /freecam --speed 3 - Enable with speed 3
+ *   /freecam --speed 3 - Enable with speed 3, or change the speed while in freecam
  *   /fc --speed 5 - Short alias with speed
+ *   /freecam all|world <name>|list <names> on|off - Admin batch toggle
+ *   /freecam stats - Admin plugin metrics
+ *   /freecam record [name] - Record a camera path, saving it as name
+ *   /freecam play <name> - Play a recorded camera path
+ *   /freecam follow [player] - Attach the camera to a player, or detach it
+ *   /freecam direct on|off - Admin: broadcast your camera to viewers
+ *   /freecam watch [director] - Watch a director's camera, or stop watching
  * 
  * When enabled, the player's camera detaches and can fly freely through the world.
  * When disabled, the camera returns to the player's original position.
@@ -35,15 +50,34 @@ public class FreecamCommand extends AbstractPlayerCommand {
 
     private static final Message MSG_ENABLED = Message.raw("Freecam enabled! Fly freely with WASD. Use /freecam again to disable.").color("green");
     private static final Message MSG_DISABLED = Message.raw("Freecam disabled. Camera returned to player.").color("red");
+    private static final Message MSG_SETTINGS_DEFERRED = Message.raw("New settings will apply once path playback, following or watching ends.").color("gray");
+    private static final Message MSG_THROTTLED = Message.raw("You are toggling freecam too fast. Try again in a moment.").color("red");
 
     private final OptionalArg<Integer> speedArg;
     private final OptionalArg<Boolean> showPlayerArg;
 
     public FreecamCommand() {
-        super("freecam", "Toggle freecam mode with optional speed control. Usage: /freecam [--speed 1-10] [--show-player true/false]");
-        this.speedArg = withOptionalArg("speed", "Freecam speed (1-10)", new FreecamSpeedArgumentType());
+        super("freecam", "Toggle freecam mode with optional speed control. Usage: /freecam [--speed <level>] [--show-player true/false]");
+        this.speedArg = withOptionalArg("speed", "Freecam speed level", new FreecamSpeedArgumentType());
         this.showPlayerArg = withOptionalArg("show-player", "Show player model (true/false)", new ShowPlayerArgumentType());
         this.addAliases("fc"); // Add short alias
+
+        // Admin batch toggles for events
+        this.addSubCommand(new FreecamAllCommand());
+        this.addSubCommand(new FreecamWorldCommand());
+        this.addSubCommand(new FreecamListCommand());
+        this.addSubCommand(new FreecamStatsCommand());
+
+        // Camera path recording and playback
+        this.addSubCommand(new FreecamRecordCommand());
+        this.addSubCommand(new FreecamPlayCommand());
+
+        // Spectate another player via camera attachment
+        this.addSubCommand(new FreecamFollowCommand());
+
+        // Director camera broadcast to spectators
+        this.addSubCommand(new FreecamDirectCommand());
+        this.addSubCommand(new FreecamWatchCommand());
     }
 
     @Override
@@ -70,169 +104,345 @@ public class FreecamCommand extends AbstractPlayerCommand {
             }
         }
 
-        boolean wasEnabled = state.isFreecamEnabled(playerId);
+        // A toggle still inside the debounce window counts as already applied
+        FreecamWorldState worldState = state.getWorldState(world);
+        Boolean pending = worldState.getPendingToggle(playerId);
+        boolean wasEnabled = pending != null ? pending : worldState.isFreecamEnabled(playerId);
         // Update speed if provided
         if (speed != null) {
             state.setSpeed(playerId, speed);
-            context.sendMessage(Message.raw("Freecam speed set to " + speed + ". Will apply on next toggle.").color("gray"));
+            context.sendMessage(Message.raw("Freecam speed set to " + speed + ".").color("gray"));
         }
         
         // Update show-player preference if provided
         if (showPlayer != null) {
             state.setShowPlayer(playerId, showPlayer);
-            context.sendMessage(Message.raw("Show player set to " + (showPlayer ? "enabled" : "disabled") + ". Will apply on next toggle.").color("gray"));
+            context.sendMessage(Message.raw("Show player set to " + (showPlayer ? "enabled" : "disabled") + ".").color("gray"));
         }
 
-        if (wasEnabled && speed == null && showPlayer == null) {
+        // Persist changed preferences in the background. An unset speed stays
+        // unset so later changes to default-speed still reach the player.
+        boolean settingsChanged = speed != null || showPlayer != null;
+        if (settingsChanged) {
+            FreecamPlugin.getInstance().getPreferenceStore()
+                .record(playerId, state.getChosenSpeed(playerId), state.getShowPlayer(playerId));
+        }
+
+        if (wasEnabled && !settingsChanged) {
             // Disable freecam only if NO arguments were provided (toggle off)
-            disableFreecam(playerRef, world, store, entityRef);
-            context.sendMessage(MSG_DISABLED);
+            requestToggle(context, playerRef, world, store, entityRef, false);
         } else if (!wasEnabled) {
             // Enable freecam - detach camera
+            requestToggle(context, playerRef, world, store, entityRef, true);
+        }
+
+        // Apply changed settings to an open session in place. A pending
+        // enable picks them up when it is applied.
+        if (settingsChanged && worldState.isFreecamEnabled(playerId)
+                && !updateFreecam(playerRef, world, store, entityRef)) {
+            context.sendMessage(MSG_SETTINGS_DEFERRED);
+        }
+    }
+
+    /**
+     * Apply a player's toggle through the per-player rate limit and the
+     * debounce window. A toggle that undoes one still waiting in the window
+     * cancels it, so rapid on/off pairs send nothing.
+     */
+    private static void requestToggle(CommandContext context, PlayerRef playerRef, World world,
+                                      Store<EntityStore> store, Ref<EntityStore> entityRef, boolean enable) {
+        UUID playerId = playerRef.getUuid();
+        FreecamPlugin plugin = FreecamPlugin.getInstance();
+        FreecamConfig config = plugin.getFreecamConfig();
+        FreecamWorldState worldState = FreecamState.getInstance().getWorldState(world);
+
+        if (!FreecamState.getInstance().tryAcquireToggle(playerId, config.getToggleRefillNanos(), config.getToggleBurst())) {
+            FreecamMetrics.getInstance().recordToggleThrottled();
+            context.sendMessage(MSG_THROTTLED);
+            return;
+        }
+
+        int debounceMs = config.getToggleDebounceMs();
+        if (debounceMs == 0) {
+            setFreecam(playerRef, world, store, entityRef, enable);
+            context.sendMessage(enable ? MSG_ENABLED : MSG_DISABLED);
+            return;
+        }
+
+        if (enable == worldState.isFreecamEnabled(playerId)) {
+            // Undoes the pending toggle: the net transition is a no-op
+            worldState.clearPendingToggle(playerId);
+            FreecamMetrics.getInstance().recordToggleCollapsed();
+            context.sendMessage(enable ? MSG_ENABLED : MSG_DISABLED);
+            return;
+        }
+
+        long token = worldState.setPendingToggle(playerId, enable);
+        context.sendMessage(enable ? MSG_ENABLED : MSG_DISABLED);
+        plugin.getIoExecutor().schedule(
+            () -> world.execute(() -> applyPendingToggle(playerRef, world, token)),
+            debounceMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Apply a debounced toggle once its window has passed, unless it was
+     * cancelled or replaced. Runs on the player's world thread.
+     */
+    private static void applyPendingToggle(PlayerRef playerRef, World world, long token) {
+        FreecamWorldState worldState = FreecamState.getInstance().getWorldState(world);
+        Boolean enable = worldState.takePendingToggle(playerRef.getUuid(), token);
+        if (enable == null) {
+            return;
+        }
+        Ref<EntityStore> entityRef = playerRef.getReference();
+        if (entityRef == null || !entityRef.isValid() || entityRef.getStore().getExternalData().getWorld() != world) {
+            return; // Player left or moved to another world meanwhile
+        }
+        if (worldState.isFreecamEnabled(playerRef.getUuid()) != enable) {
+            setFreecam(playerRef, world, entityRef.getStore(), entityRef, enable);
+        }
+    }
+
+    /**
+     * Enable or disable freecam for a player. Must run on the player's world thread.
+     */
+    public static void setFreecam(PlayerRef playerRef, World world, Store<EntityStore> store, Ref<EntityStore> entityRef, boolean enable) {
+        if (enable) {
             enableFreecam(playerRef, world, store, entityRef);
-            context.sendMessage(MSG_ENABLED);
+        } else {
+            disableFreecam(playerRef, world, store, entityRef);
         }
     }
 
     /**
      * Enable freecam mode for a player using SetServerCamera with proper speed control.
+     * Must run on the player's world thread.
      */
-    private void enableFreecam(PlayerRef playerRef, World world, Store<EntityStore> store, Ref<EntityStore> entityRef) {
+    static void enableFreecam(PlayerRef playerRef, World world, Store<EntityStore> store, Ref<EntityStore> entityRef) {
+        long start = System.nanoTime();
         UUID playerId = playerRef.getUuid();
         FreecamState state = FreecamState.getInstance();
+        FreecamTransitionEvent trace = new FreecamTransitionEvent();
+        trace.begin(playerId, world.getName(), true);
 
         // Get current position and rotation to save
         Transform transform = playerRef.getTransform().clone();
         Vector3f headRotation = playerRef.getHeadRotation().clone();
+        double originX = transform.getPosition().x;
+        double originY = transform.getPosition().y;
+        double originZ = transform.getPosition().z;
 
-        // Store original state
-        state.enableFreecam(
-            playerId, 
-            transform.getPosition().x,
-            transform.getPosition().y, 
-            transform.getPosition().z,
-            headRotation.getYaw(),
-            headRotation.getPitch()
-        );
-        
-        // Move camera up 2 blocks from player position
-        transform.getPosition().y += 2.5;
+        // Mark the player as in freecam in the world's shard
+        trace.mark();
+        state.getWorldState(world).enableFreecam(playerId);
+        trace.stateUpdated();
+
+        // Start the camera a little above the player
+        transform.getPosition().y += FreecamPlugin.getInstance().getFreecamConfig().getCameraLift();
 
         // Get player's current speed setting
         int speed = state.getSpeed(playerId);
         boolean showPlayer = state.getShowPlayer(playerId);
 
+        // Remember the game mode to restore on disable
+        Player player = store.getComponent(entityRef, Player.getComponentType());
+        GameMode previousGameMode = player != null ? player.getGameMode() : null;
+
+        // Journal the session so it can be recovered after a crash. The write
+        // reaches disk with the next group commit; the camera is sent after it.
+        CompletableFuture<Void> journaled = FreecamPlugin.getInstance().getSessionJournal().recordEnable(
+            playerId, world.getName(),
+            originX, originY, originZ,
+            headRotation.getYaw(),
+            headRotation.getPitch(),
+            previousGameMode
+        );
+
+        // Mark the entity so freecam-only systems match it
+        FreecamComponent component = new FreecamComponent(
+            entityRef,
+            originX, originY, originZ,
+            headRotation.getYaw(),
+            headRotation.getPitch(),
+            speed,
+            showPlayer,
+            previousGameMode
+        );
+        component.getCamera().place(transform.getPosition().x, transform.getPosition().y, transform.getPosition().z,
+            headRotation.getYaw(), headRotation.getPitch());
+        store.addComponent(entityRef, FreecamComponent.getComponentType(), component);
+
         // Set player to Adventure mode to prevent block breaking
+        trace.mark();
         setGameMode(store, entityRef, GameMode.Adventure);
+        trace.gameModeSet();
+
+        // Keep the camera within range of the origin, end the session when idle,
+        // send the entities around the camera and prefetch chunks ahead of it
+        FreecamPlugin.getInstance().getLeashSystem().track(world, entityRef);
+        FreecamPlugin.getInstance().getIdleSystem().track(world, entityRef);
+        FreecamPlugin.getInstance().getRelevanceSystem().track(world, entityRef);
+        FreecamPlugin.getInstance().getChunkPrefetchSystem().track(world, entityRef);
 
-        // Build camera settings and send packet
-        ServerCameraSettings settings = buildFreecamSettings(transform, headRotation, speed, showPlayer);
+        // Stamp camera settings from the precomputed template. The player's body
+        // moves with the camera once the client has it, so the packet is only
+        // sent once the origin is on disk; the world thread does not wait for it.
+        ServerCameraSettings settings = FreecamPlugin.getInstance().getCameraTemplates()
+            .create(transform, headRotation, speed, showPlayer);
         SetServerCamera packet = new SetServerCamera(ClientCameraView.Custom, true, settings);
-        playerRef.getPacketHandler().writeNoCache(packet);
+        journaled.thenRun(() -> world.execute(() -> {
+            if (!entityRef.isValid() || store.getComponent(entityRef, FreecamComponent.getComponentType()) != component) {
+                return; // Left freecam before the camera was sent
+            }
+            trace.mark();
+            playerRef.getPacketHandler().writeNoCache(packet);
+            trace.packetWritten();
+            FreecamMetrics.getInstance().recordPacketWritten();
+            trace.commit();
+        }));
+
+        FreecamMetrics.getInstance().recordEnable(System.nanoTime() - start);
     }
 
     /**
-     * Disable freecam mode and restore player's original position and state.
+     * Apply the player's current speed and show-player settings to their open
+     * session by resending the camera where it is now: the player's body plus
+     * the camera's offset from it, which the client keeps current while
+     * flying (see {@link FreecamCamera}). The player is not restored and the
+     * session is not restarted. While the camera is driven by path playback,
+     * a followed player or a director, or its position cannot be brought up
+     * to date, only the session is updated and the settings take effect the
+     * next time the camera is placed; returns false in that case. Must run
+     * on the player's world thread.
      */
-    private void disableFreecam(PlayerRef playerRef, World world, Store<EntityStore> store, Ref<EntityStore> entityRef) {
+    static boolean updateFreecam(PlayerRef playerRef, World world, Store<EntityStore> store, Ref<EntityStore> entityRef) {
         UUID playerId = playerRef.getUuid();
         FreecamState state = FreecamState.getInstance();
-        FreecamData data = state.getData(playerId);
+        FreecamComponent component = store.getComponent(entityRef, FreecamComponent.getComponentType());
+        if (component == null) {
+            return true;
+        }
+
+        int speed = state.getSpeed(playerId);
+        boolean showPlayer = state.getShowPlayer(playerId);
+        if (component.getSpeed() == speed && component.isShowPlayer() == showPlayer) {
+            return true; // Nothing changed, nothing to send
+        }
+        // Systems that resend the camera (leash, follow detach) read the component
+        component.setSettings(speed, showPlayer);
+
+        FreecamPlugin plugin = FreecamPlugin.getInstance();
+        if (plugin.getPathPlayback().isPlaying(playerId)
+                || plugin.getFollowIndex().getTarget(playerId) != null
+                || plugin.getBroadcastSystem().isViewer(world, playerId)) {
+            return false;
+        }
+
+        // Resending at a stale point would snap the view back, so only send
+        // once the camera's live position is known
+        FreecamCamera camera = component.getCamera();
+        if (!camera.isFree() || !camera.resolve(store)) {
+            return false;
+        }
+        placeCamera(playerRef, component, camera.getX(), camera.getY(), camera.getZ(), camera.getYaw(), camera.getPitch());
+        return true;
+    }
 
-        // Restore original position and rotation
+    /**
+     * Hand a player a free camera again where their camera is now, after a
+     * follow, playback or broadcast stopped driving it. Must run on the
+     * player's world thread.
+     */
+    public static void releaseCamera(PlayerRef playerRef, Store<EntityStore> store, FreecamComponent freecam) {
+        FreecamCamera camera = freecam.getCamera();
+        camera.resolve(store);
+        placeCamera(playerRef, freecam, camera.getX(), camera.getY(), camera.getZ(), camera.getYaw(), camera.getPitch());
+    }
+
+    /**
+     * Send a player a free camera at a point. Must run on the player's world thread.
+     */
+    public static void placeCamera(PlayerRef playerRef, FreecamComponent freecam,
+                                   double x, double y, double z, float yaw, float pitch) {
+        freecam.getCamera().place(x, y, z, yaw, pitch);
+        ServerCameraSettings settings = FreecamPlugin.getInstance().getCameraTemplates()
+            .create(x, y, z, yaw, pitch, 0.0f, freecam.getSpeed(), freecam.isShowPlayer());
+        playerRef.getPacketHandler().writeNoCache(new SetServerCamera(ClientCameraView.Custom, true, settings));
+        FreecamMetrics.getInstance().recordPacketWritten();
+    }
+
+    /**
+     * Disable freecam mode and restore player's original position and state.
+     * Must run on the player's world thread.
+     */
+    static void disableFreecam(PlayerRef playerRef, World world, Store<EntityStore> store, Ref<EntityStore> entityRef) {
+        long start = System.nanoTime();
+        UUID playerId = playerRef.getUuid();
+        FreecamTransitionEvent trace = new FreecamTransitionEvent();
+        trace.begin(playerId, world.getName(), false);
+        FreecamWorldState worldState = FreecamState.getInstance().getWorldState(world);
+        FreecamComponent component = store.getComponent(entityRef, FreecamComponent.getComponentType());
+
+        // Restore original position and rotation from the session on the entity
         Transform transform = new Transform();
-        transform.getPosition().x = data.getOriginalX();
-        transform.getPosition().y = data.getOriginalY();
-        transform.getPosition().z = data.getOriginalZ();
-        
-        Vector3f headRotation = new Vector3f(
-            data.getOriginalYaw(),
-            data.getOriginalPitch(),
-            0.0f
-        );
+        Vector3f headRotation;
+        GameMode previousGameMode = null;
+        if (component != null) {
+            transform.getPosition().x = component.getOriginalX();
+            transform.getPosition().y = component.getOriginalY();
+            transform.getPosition().z = component.getOriginalZ();
+            headRotation = new Vector3f(component.getOriginalYaw(), component.getOriginalPitch(), 0.0f);
+            previousGameMode = component.getPreviousGameMode();
+            store.removeComponent(entityRef, FreecamComponent.getComponentType());
+            FreecamPlugin.getInstance().getLeashSystem().untrack(world, entityRef);
+            FreecamPlugin.getInstance().getIdleSystem().untrack(world, entityRef);
+            FreecamPlugin.getInstance().getRelevanceSystem().untrack(world, entityRef);
+            FreecamPlugin.getInstance().getChunkPrefetchSystem().untrack(world, entityRef);
+            FreecamPlugin.getInstance().getPathRecordSystem().stop(world, entityRef);
+        } else {
+            // Nothing saved, leave the player where they are
+            transform = playerRef.getTransform().clone();
+            headRotation = playerRef.getHeadRotation().clone();
+        }
+
+        // Stop any camera path playback or follow before handing the camera back
+        FreecamPlugin.getInstance().getPathPlayback().stop(playerId);
+        FreecamPlugin.getInstance().getFollowIndex().unfollow(playerId);
+        FreecamPlugin.getInstance().getBroadcastSystem().leave(world, playerId);
 
         // Disable custom camera
-        SetServerCamera packet = new SetServerCamera(ClientCameraView.Custom, false, null);
-        playerRef.getPacketHandler().writeNoCache(packet);
+        trace.mark();
+        playerRef.getPacketHandler().writeNoCache(FreecamPlugin.getInstance().getCameraTemplates().getDisablePacket());
+        trace.packetWritten();
+        FreecamMetrics.getInstance().recordPacketWritten();
 
         // Update player position
+        trace.mark();
         playerRef.updatePosition(world, transform, headRotation);
+        trace.positionUpdated();
+
+        // Restore the game mode the player had before freecam
+        trace.mark();
+        setGameMode(store, entityRef, previousGameMode);
+        trace.gameModeSet();
 
         // Mark as disabled
-        state.disableFreecam(playerId);
+        trace.mark();
+        worldState.disableFreecam(playerId);
+        trace.stateUpdated();
+        FreecamPlugin.getInstance().getSessionJournal().recordDisable(playerId);
+
+        FreecamMetrics.getInstance().recordDisable(System.nanoTime() - start);
+        trace.commit();
     }
 
     /**
      * Set player's game mode.
      */
-    private void setGameMode(Store<EntityStore> store, Ref<EntityStore> entityRef, GameMode mode) {
+    private static void setGameMode(Store<EntityStore> store, Ref<EntityStore> entityRef, GameMode mode) {
         if (mode == null) {
             return;
         }
         Player.setGameMode(entityRef, mode, store);
     }
-
-    /**
-     * Build ServerCameraSettings for freecam mode with speed control.
-     * Based on Riloox's implementation with adjustable movement multipliers.
-     */
-    private ServerCameraSettings buildFreecamSettings(Transform transform, Vector3f headRotation, int speed, boolean showPlayer) {
-        ServerCameraSettings settings = new ServerCameraSettings();
-        
-        // Basic settings
-        settings.positionLerpSpeed = 1.0f;
-        settings.rotationLerpSpeed = 1.0f;
-        settings.speedModifier = 1.0f;
-        settings.allowPitchControls = true;
-        settings.displayCursor = false;
-        settings.displayReticle = false;
-        settings.mouseInputTargetType = MouseInputTargetType.Any;
-        settings.sendMouseMotion = true;
-        settings.skipCharacterPhysics = true;
-        settings.isFirstPerson = !showPlayer;  // First-person hides player, third-person shows player
-        settings.movementForceRotationType = MovementForceRotationType.CameraRotation;
-        settings.movementForceRotation = new Direction(0.0f, 0.0f, 0.0f);
-        
-        // Attachment settings
-        settings.attachedToType = AttachedToType.None;
-        settings.attachedToEntityId = 0;
-        settings.eyeOffset = true;
-        settings.positionDistanceOffsetType = PositionDistanceOffsetType.DistanceOffset;
-        settings.positionOffset = new Position(0.0, 0.0, 0.0);
-        settings.rotationOffset = new Direction(0.0f, 0.0f, 0.0f);
-        
-        // Set camera position and rotation
-        settings.positionType = PositionType.Custom;
-        settings.rotationType = RotationType.Custom;
-        settings.position = new Position(
-            transform.getPosition().x,
-            transform.getPosition().y,
-            transform.getPosition().z
-        );
-        settings.rotation = new Direction(
-            headRotation.getYaw(),
-            headRotation.getPitch(),
-            headRotation.getRoll()
-        );
-        
-        // Movement settings - this is where speed control happens
-        settings.canMoveType = CanMoveType.Always;
-        settings.applyMovementType = ApplyMovementType.Position;
-        
-        // Speed multipliers based on 1-10 range
-        float horizontal = Math.max(1.0f, (float) speed);
-        float vertical = Math.max(0.5f, 0.4f + (speed * 0.12f));
-        settings.movementMultiplier = new com.hypixel.hytale.protocol.Vector3f(horizontal, vertical, horizontal);
-        
-        // Look settings
-        settings.applyLookType = ApplyLookType.Rotation;
-        settings.lookMultiplier = new Vector2f(1.0f, 1.0f);
-        settings.mouseInputType = MouseInputType.LookAtTarget;
-        settings.mouseInputTargetType = MouseInputTargetType.Any;
-        
-        // Plane normal for movement
-        settings.planeNormal = new com.hypixel.hytale.protocol.Vector3f(0.0f, 1.0f, 0.0f);
-        
-        return settings;
-    }
 }
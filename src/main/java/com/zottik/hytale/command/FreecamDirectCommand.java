@@ -0,0 +1,61 @@
+package com.zottik.hytale.command;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.FreecamState;
+import com.zottik.hytale.system.FreecamBroadcastSystem;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Start or stop broadcasting your freecam camera to viewers.
+ * Usage: /freecam direct on|off
+ */
+public class FreecamDirectCommand extends AbstractPlayerCommand {
+
+    private final RequiredArg<Boolean> modeArg;
+
+    public FreecamDirectCommand() {
+        super("direct", "Broadcast your freecam camera to viewers. Usage: /freecam direct on|off");
+        this.modeArg = withRequiredArg("mode", "on or off", new FreecamToggleArgumentType());
+        this.setPermissionGroup(GameMode.Creative); // Admin only
+    }
+
+    @Override
+    protected void execute(@Nonnull CommandContext context,
+                           @Nonnull Store<EntityStore> store,
+                           @Nonnull Ref<EntityStore> entityRef,
+                           @Nonnull PlayerRef playerRef,
+                           @Nonnull World world) {
+        FreecamBroadcastSystem broadcast = FreecamPlugin.getInstance().getBroadcastSystem();
+        if (!context.get(modeArg)) {
+            if (broadcast.stopGroup(world, playerRef.getUuid())) {
+                context.sendMessage(Message.raw("Stopped broadcasting your camera.").color("gray"));
+            } else {
+                context.sendMessage(Message.raw("You are not broadcasting.").color("gray"));
+            }
+            return;
+        }
+
+        if (!FreecamState.getInstance().getWorldState(world).isFreecamEnabled(playerRef.getUuid())) {
+            context.sendMessage(Message.raw("Enable freecam with /freecam before directing.").color("red"));
+            return;
+        }
+        // A director cannot also be watching someone else; startGroup leaves any group they watch
+        if (broadcast.startGroup(world, playerRef)) {
+            context.sendMessage(Message.raw("Broadcasting your camera. Players can watch with /freecam watch "
+                + playerRef.getUsername() + ".").color("green"));
+        } else {
+            context.sendMessage(Message.raw("You are already broadcasting.").color("gray"));
+        }
+    }
+}
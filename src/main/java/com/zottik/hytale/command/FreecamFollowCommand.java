@@ -0,0 +1,117 @@
+package com.zottik.hytale.command;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.protocol.ClientCameraView;
+import com.hypixel.hytale.protocol.ServerCameraSettings;
+import com.hypixel.hytale.protocol.packets.camera.SetServerCamera;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
+import com.hypixel.hytale.server.core.modules.entity.tracker.NetworkId;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.FreecamState;
+import com.zottik.hytale.component.FreecamComponent;
+import com.zottik.hytale.follow.FreecamFollowIndex;
+import com.zottik.hytale.metrics.FreecamMetrics;
+
+import javax.annotation.Nonnull;
+import java.util.UUID;
+
+/**
+ * Attach the freecam camera to another player in the same world. The
+ * client keeps the camera on the target, so following costs the server
+ * nothing per tick.
+ * Usage:
+ *   /freecam follow <player> - Follow a player
+ *   /freecam follow - Stop following and fly freely again
+ */
+public class FreecamFollowCommand extends AbstractPlayerCommand {
+
+    private final OptionalArg<String> playerArg;
+
+    public FreecamFollowCommand() {
+        super("follow", "Follow a player with the freecam camera. Usage: /freecam follow [player]");
+        this.playerArg = withOptionalArg("player", "Player to follow", ArgTypes.STRING);
+    }
+
+    @Override
+    protected void execute(@Nonnull CommandContext context,
+                           @Nonnull Store<EntityStore> store,
+                           @Nonnull Ref<EntityStore> entityRef,
+                           @Nonnull PlayerRef playerRef,
+                           @Nonnull World world) {
+        UUID playerId = playerRef.getUuid();
+        FreecamState state = FreecamState.getInstance();
+        if (!state.getWorldState(world).isFreecamEnabled(playerId)) {
+            context.sendMessage(Message.raw("Enable freecam with /freecam before following a player.").color("red"));
+            return;
+        }
+
+        FreecamPlugin plugin = FreecamPlugin.getInstance();
+        FreecamFollowIndex followIndex = plugin.getFollowIndex();
+        int speed = state.getSpeed(playerId);
+        boolean showPlayer = state.getShowPlayer(playerId);
+
+        if (!context.provided(playerArg)) {
+            if (followIndex.unfollow(playerId) == null) {
+                context.sendMessage(Message.raw("You are not following anyone.").color("gray"));
+                return;
+            }
+            // Hand back a free camera where the followed player was
+            FreecamComponent freecam = store.getComponent(entityRef, FreecamComponent.getComponentType());
+            if (freecam != null) {
+                FreecamCommand.releaseCamera(playerRef, store, freecam);
+            }
+            context.sendMessage(Message.raw("Stopped following.").color("gray"));
+            return;
+        }
+
+        String name = context.get(playerArg);
+        PlayerRef target = null;
+        for (PlayerRef candidate : world.getPlayerRefs()) {
+            if (candidate.getUsername().equalsIgnoreCase(name)) {
+                target = candidate;
+                break;
+            }
+        }
+        if (target == null) {
+            context.sendMessage(Message.raw("No player named " + name + " in your world.").color("red"));
+            return;
+        }
+        if (target.getUuid().equals(playerId)) {
+            context.sendMessage(Message.raw("You cannot follow yourself.").color("red"));
+            return;
+        }
+        Ref<EntityStore> targetRef = target.getReference();
+        NetworkId networkId = targetRef != null && targetRef.isValid()
+            ? store.getComponent(targetRef, NetworkId.getComponentType())
+            : null;
+        if (networkId == null) {
+            context.sendMessage(Message.raw(target.getUsername() + " cannot be followed right now.").color("red"));
+            return;
+        }
+
+        // A path playback would keep moving the camera away from the target
+        plugin.getPathPlayback().stop(playerId);
+        followIndex.follow(playerId, target.getUuid());
+        FreecamComponent freecam = store.getComponent(entityRef, FreecamComponent.getComponentType());
+        if (freecam != null) {
+            freecam.getCamera().attach(targetRef);
+        }
+
+        ServerCameraSettings settings = plugin.getCameraTemplates().createFollow(networkId.getId(), speed, showPlayer);
+        send(playerRef, settings);
+        context.sendMessage(Message.raw("Following " + target.getUsername() + ". Use /freecam follow to stop.").color("green"));
+    }
+
+    private static void send(PlayerRef playerRef, ServerCameraSettings settings) {
+        playerRef.getPacketHandler().writeNoCache(new SetServerCamera(ClientCameraView.Custom, true, settings));
+        FreecamMetrics.getInstance().recordPacketWritten();
+    }
+}
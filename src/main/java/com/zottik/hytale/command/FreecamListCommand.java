@@ -0,0 +1,50 @@
+package com.zottik.hytale.command;
+
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import javax.annotation.Nonnull;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Toggle freecam for a comma-separated list of players.
+ * Usage: /freecam list <name,name,...> on|off
+ */
+public class FreecamListCommand extends FreecamBatchCommand {
+
+    private final RequiredArg<String> playersArg;
+    private final RequiredArg<Boolean> modeArg;
+
+    public FreecamListCommand() {
+        super("list", "Toggle freecam for a list of players. Usage: /freecam list <name,name,...> on|off");
+        this.playersArg = withRequiredArg("players", "Comma-separated player names", ArgTypes.STRING);
+        this.modeArg = withRequiredArg("mode", "on or off", new FreecamToggleArgumentType());
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        boolean enable = context.get(modeArg);
+        Set<String> names = new HashSet<>();
+        for (String name : context.get(playersArg).split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        int players = 0;
+        int worlds = 0;
+        for (World world : Universe.get().getWorlds().values()) {
+            int queued = queueWorld(world, playerRef -> names.contains(playerRef.getUsername().toLowerCase(Locale.ROOT)), enable);
+            if (queued > 0) {
+                players += queued;
+                worlds++;
+            }
+        }
+        sendQueued(context, players, worlds, enable);
+    }
+}
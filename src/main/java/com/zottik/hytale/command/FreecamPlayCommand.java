@@ -0,0 +1,92 @@
+package com.zottik.hytale.command;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.FreecamState;
+import com.zottik.hytale.component.FreecamComponent;
+import com.zottik.hytale.path.CameraPath;
+import com.zottik.hytale.storage.FreecamPathStore;
+
+import javax.annotation.Nonnull;
+import java.util.UUID;
+
+/**
+ * Play a recorded camera path. Disabling freecam stops the playback.
+ * Usage: /freecam play <name>
+ */
+public class FreecamPlayCommand extends AbstractPlayerCommand {
+
+    private final RequiredArg<String> nameArg;
+
+    public FreecamPlayCommand() {
+        super("play", "Play a recorded camera path. Usage: /freecam play <name>");
+        this.nameArg = withRequiredArg("name", "Name of the recorded path", ArgTypes.STRING);
+    }
+
+    @Override
+    protected void execute(@Nonnull CommandContext context,
+                           @Nonnull Store<EntityStore> store,
+                           @Nonnull Ref<EntityStore> entityRef,
+                           @Nonnull PlayerRef playerRef,
+                           @Nonnull World world) {
+        UUID playerId = playerRef.getUuid();
+        FreecamState state = FreecamState.getInstance();
+        if (!state.getWorldState(world).isFreecamEnabled(playerId)) {
+            context.sendMessage(Message.raw("Enable freecam with /freecam before playing a path.").color("red"));
+            return;
+        }
+
+        String name = context.get(nameArg);
+        if (!FreecamPathStore.isValidName(name)) {
+            context.sendMessage(Message.raw("Path names may only use letters, digits, '-' and '_' (max 32).").color("red"));
+            return;
+        }
+
+        FreecamPlugin plugin = FreecamPlugin.getInstance();
+        int speed = state.getSpeed(playerId);
+        boolean showPlayer = state.getShowPlayer(playerId);
+        plugin.getPathStore().load(name).whenComplete((path, error) -> {
+            if (error != null) {
+                context.sendMessage(Message.raw("Failed to load camera path " + name + ".").color("red"));
+            } else if (path == null) {
+                context.sendMessage(Message.raw("No camera path named " + name + ".").color("red"));
+            } else {
+                world.execute(() -> start(context, playerRef, world, name, path, speed, showPlayer));
+            }
+        });
+    }
+
+    /**
+     * Start a loaded path, unless the player left freecam or the world while
+     * it loaded. Runs on the player's world thread.
+     */
+    private static void start(CommandContext context, PlayerRef playerRef, World world, String name,
+                              CameraPath path, int speed, boolean showPlayer) {
+        UUID playerId = playerRef.getUuid();
+        Ref<EntityStore> entityRef = playerRef.getReference();
+        if (entityRef == null || !entityRef.isValid() || entityRef.getStore().getExternalData().getWorld() != world) {
+            return;
+        }
+        FreecamComponent freecam = entityRef.getStore().getComponent(entityRef, FreecamComponent.getComponentType());
+        if (freecam == null) {
+            return;
+        }
+
+        // Playback takes over the camera from any follow or broadcast being watched
+        FreecamPlugin plugin = FreecamPlugin.getInstance();
+        plugin.getFollowIndex().unfollow(playerId);
+        plugin.getBroadcastSystem().leave(world, playerId);
+        plugin.getPathPlayback().start(playerRef, freecam.getCamera(), path, speed, showPlayer);
+        context.sendMessage(Message.raw("Playing camera path " + name + " ("
+            + path.getDurationMs() / 1000 + "s).").color("green"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.zottik.hytale.command;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.FreecamState;
+import com.zottik.hytale.path.CameraPathRecorder;
+import com.zottik.hytale.storage.FreecamPathStore;
+import com.zottik.hytale.system.FreecamPathRecordSystem;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Record the freecam camera's path for later playback.
+ * Usage:
+ *   /freecam record - Start recording
+ *   /freecam record <name> - Stop recording and save the path as <name>
+ */
+public class FreecamRecordCommand extends AbstractPlayerCommand {
+
+    private final OptionalArg<String> nameArg;
+
+    public FreecamRecordCommand() {
+        super("record", "Record a camera path. Usage: /freecam record to start, /freecam record <name> to save");
+        this.nameArg = withOptionalArg("name", "Name to save the path as", ArgTypes.STRING);
+    }
+
+    @Override
+    protected void execute(@Nonnull CommandContext context,
+                           @Nonnull Store<EntityStore> store,
+                           @Nonnull Ref<EntityStore> entityRef,
+                           @Nonnull PlayerRef playerRef,
+                           @Nonnull World world) {
+        if (!FreecamState.getInstance().getWorldState(world).isFreecamEnabled(playerRef.getUuid())) {
+            context.sendMessage(Message.raw("Enable freecam with /freecam before recording.").color("red"));
+            return;
+        }
+
+        FreecamPlugin plugin = FreecamPlugin.getInstance();
+        FreecamPathRecordSystem recordSystem = plugin.getPathRecordSystem();
+        String name = context.provided(nameArg) ? context.get(nameArg) : null;
+
+        if (name == null) {
+            int capacity = plugin.getFreecamConfig().getPathMaxKeyframes();
+            if (recordSystem.start(world, entityRef, capacity)) {
+                context.sendMessage(Message.raw("Recording camera path. Use /freecam record <name> to save it.").color("green"));
+            } else {
+                context.sendMessage(Message.raw("Already recording. Use /freecam record <name> to save.").color("gray"));
+            }
+            return;
+        }
+
+        if (!FreecamPathStore.isValidName(name)) {
+            context.sendMessage(Message.raw("Path names may only use letters, digits, '-' and '_' (max 32).").color("red"));
+            return;
+        }
+        CameraPathRecorder recorder = recordSystem.stop(world, entityRef);
+        if (recorder == null) {
+            context.sendMessage(Message.raw("Not recording. Use /freecam record to start.").color("red"));
+            return;
+        }
+
+        int keyframes = recorder.size();
+        if (keyframes == 0) {
+            context.sendMessage(Message.raw("Nothing was recorded. Record for at least a moment before saving.").color("red"));
+            return;
+        }
+        plugin.getPathStore().save(name, recorder.toPath()).whenComplete((bytes, error) -> {
+            if (error != null) {
+                context.sendMessage(Message.raw("Failed to save camera path " + name + ".").color("red"));
+            } else {
+                context.sendMessage(Message.raw("Saved camera path " + name + " (" + keyframes + " keyframes, "
+                    + (bytes + 1023) / 1024 + " KB).").color("green"));
+            }
+        });
+    }
+}
@@ -3,28 +3,69 @@ package com.zottik.hytale.command;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.command.system.ParseResult;
 import com.hypixel.hytale.server.core.command.system.arguments.types.SingleArgumentType;
+import com.zottik.hytale.FreecamPlugin;
 
 /**
- * Argument type for parsing freecam speed values (1-10).
+ * Argument type for parsing freecam speed levels, from 1 up to the number
+ * of levels in the configured speed curve.
  */
 public class FreecamSpeedArgumentType extends SingleArgumentType<Integer> {
 
+    static final int MIN_SPEED = 1;
+
+    // Sentinels returned by parseSpeed for rejected input
+    static final int NOT_A_NUMBER = -1;
+    static final int OUT_OF_RANGE = -2;
+
     public FreecamSpeedArgumentType() {
-        super("speed", "Freecam speed (1-10)");
+        super("speed", "Freecam speed level");
     }
 
     @Override
     public Integer parse(String input, ParseResult result) {
-        try {
-            int value = Integer.parseInt(input);
-            if (value < 1 || value > 10) {
-                result.fail(Message.raw("Speed must be between 1 and 10."));
-                return null;
-            }
-            return value;
-        } catch (NumberFormatException ex) {
-            result.fail(Message.raw("Speed must be a number between 1 and 10."));
+        int maxSpeed = FreecamPlugin.getInstance().getFreecamConfig().getSpeedLevels();
+        int value = parseSpeed(input, maxSpeed);
+        if (value == NOT_A_NUMBER) {
+            result.fail(Message.raw("Speed must be a number between " + MIN_SPEED + " and " + maxSpeed + "."));
             return null;
         }
+        if (value == OUT_OF_RANGE) {
+            result.fail(Message.raw("Speed must be between " + MIN_SPEED + " and " + maxSpeed + "."));
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * Parse a speed without throwing, returning {@link #NOT_A_NUMBER} or
+     * {@link #OUT_OF_RANGE} for rejected input.
+     */
+    static int parseSpeed(String input, int maxSpeed) {
+        int length = input.length();
+        if (length == 0) {
+            return NOT_A_NUMBER;
+        }
+        int start = input.charAt(0) == '+' || input.charAt(0) == '-' ? 1 : 0;
+        if (start == length) {
+            return NOT_A_NUMBER;
+        }
+        // Stop accumulating once past the maximum, so anything longer only needs a digit check
+        long value = 0;
+        for (int i = start; i < length; i++) {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_A_NUMBER;
+            }
+            if (value <= maxSpeed) {
+                value = value * 10 + (c - '0');
+            }
+        }
+        if (input.charAt(0) == '-') {
+            value = -value;
+        }
+        if (value < MIN_SPEED || value > maxSpeed) {
+            return OUT_OF_RANGE;
+        }
+        return (int) value;
     }
 }
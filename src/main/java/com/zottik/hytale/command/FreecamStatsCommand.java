@@ -0,0 +1,30 @@
+package com.zottik.hytale.command;
+
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+import com.zottik.hytale.metrics.FreecamMetrics;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Show plugin metrics: toggle counts and rate, toggle latency, packets
+ * written, cancelled block events and players currently in freecam.
+ * Usage: /freecam stats
+ */
+public class FreecamStatsCommand extends CommandBase {
+
+    public FreecamStatsCommand() {
+        super("stats", "Show freecam plugin metrics. Usage: /freecam stats");
+        this.setPermissionGroup(GameMode.Creative); // Admin only
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        context.sendMessage(Message.raw("Freecam stats:").color("green"));
+        for (String line : FreecamMetrics.getInstance().report()) {
+            context.sendMessage(Message.raw(line).color("gray"));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.zottik.hytale.command;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.ParseResult;
+import com.hypixel.hytale.server.core.command.system.arguments.types.SingleArgumentType;
+
+/**
+ * Argument type for parsing the target freecam state of a batch toggle (on/off).
+ */
+public class FreecamToggleArgumentType extends SingleArgumentType<Boolean> {
+
+    private static final Message MSG_INVALID = Message.raw("Mode must be on or off.");
+
+    public FreecamToggleArgumentType() {
+        super("mode", "Target freecam state (on/off)");
+    }
+
+    @Override
+    public Boolean parse(String input, ParseResult result) {
+        Boolean value = ShowPlayerArgumentType.parseFlag(input);
+        if (value == null) {
+            result.fail(MSG_INVALID);
+        }
+        return value;
+    }
+}
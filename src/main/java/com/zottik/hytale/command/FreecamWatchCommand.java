@@ -0,0 +1,89 @@
+package com.zottik.hytale.command;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.FreecamState;
+import com.zottik.hytale.system.FreecamBroadcastSystem;
+
+import javax.annotation.Nonnull;
+import java.util.UUID;
+
+/**
+ * Watch a director's broadcast camera.
+ * Usage:
+ *   /freecam watch <director> - Watch a director in your world
+ *   /freecam watch - Stop watching
+ */
+public class FreecamWatchCommand extends AbstractPlayerCommand {
+
+    private final OptionalArg<String> directorArg;
+
+    public FreecamWatchCommand() {
+        super("watch", "Watch a director's camera. Usage: /freecam watch [director]");
+        this.directorArg = withOptionalArg("director", "Director to watch", ArgTypes.STRING);
+    }
+
+    @Override
+    protected void execute(@Nonnull CommandContext context,
+                           @Nonnull Store<EntityStore> store,
+                           @Nonnull Ref<EntityStore> entityRef,
+                           @Nonnull PlayerRef playerRef,
+                           @Nonnull World world) {
+        UUID playerId = playerRef.getUuid();
+        FreecamPlugin plugin = FreecamPlugin.getInstance();
+        FreecamBroadcastSystem broadcast = plugin.getBroadcastSystem();
+
+        if (!context.provided(directorArg)) {
+            if (broadcast.leave(world, playerId)) {
+                context.sendMessage(Message.raw("Stopped watching.").color("gray"));
+            } else {
+                context.sendMessage(Message.raw("You are not watching anyone.").color("gray"));
+            }
+            return;
+        }
+
+        if (!FreecamState.getInstance().getWorldState(world).isFreecamEnabled(playerId)) {
+            context.sendMessage(Message.raw("Enable freecam with /freecam before watching.").color("red"));
+            return;
+        }
+
+        String name = context.get(directorArg);
+        PlayerRef director = null;
+        for (PlayerRef candidate : world.getPlayerRefs()) {
+            if (candidate.getUsername().equalsIgnoreCase(name)) {
+                director = candidate;
+                break;
+            }
+        }
+        if (director == null || !broadcast.isDirector(world, director.getUuid())) {
+            context.sendMessage(Message.raw("No director named " + name + " is broadcasting in your world.").color("red"));
+            return;
+        }
+        if (director.getUuid().equals(playerId)) {
+            context.sendMessage(Message.raw("You cannot watch yourself.").color("red"));
+            return;
+        }
+        if (broadcast.isDirector(world, playerId)) {
+            context.sendMessage(Message.raw("Stop broadcasting with /freecam direct off before watching.").color("red"));
+            return;
+        }
+
+        // The broadcast takes over the camera from any follow or playback
+        plugin.getFollowIndex().unfollow(playerId);
+        plugin.getPathPlayback().stop(playerId);
+        if (broadcast.join(world, director.getUuid(), playerRef, plugin.getFreecamConfig().getBroadcastMaxViewers())) {
+            context.sendMessage(Message.raw("Watching " + director.getUsername() + ". Use /freecam watch to stop.").color("green"));
+        } else {
+            context.sendMessage(Message.raw(director.getUsername() + "'s broadcast is full.").color("red"));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.zottik.hytale.command;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Toggle freecam for every player in one world.
+ * Usage: /freecam world <name> on|off
+ */
+public class FreecamWorldCommand extends FreecamBatchCommand {
+
+    private final RequiredArg<String> worldArg;
+    private final RequiredArg<Boolean> modeArg;
+
+    public FreecamWorldCommand() {
+        super("world", "Toggle freecam for all players in a world. Usage: /freecam world <name> on|off");
+        this.worldArg = withRequiredArg("name", "World name", ArgTypes.STRING);
+        this.modeArg = withRequiredArg("mode", "on or off", new FreecamToggleArgumentType());
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        String worldName = context.get(worldArg);
+        boolean enable = context.get(modeArg);
+        World world = Universe.get().getWorld(worldName);
+        if (world == null) {
+            context.sendMessage(Message.raw("Unknown world: " + worldName).color("red"));
+            return;
+        }
+        int queued = queueWorld(world, playerRef -> true, enable);
+        sendQueued(context, queued, queued > 0 ? 1 : 0, enable);
+    }
+}
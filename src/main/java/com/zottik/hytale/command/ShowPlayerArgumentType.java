@@ -9,20 +9,30 @@ import com.hypixel.hytale.server.core.command.system.arguments.types.SingleArgum
  */
 public class ShowPlayerArgumentType extends SingleArgumentType<Boolean> {
 
+    private static final Message MSG_INVALID = Message.raw("Show-player must be true or false.");
+
     public ShowPlayerArgumentType() {
         super("show-player", "Show player model in freecam (true/false)");
     }
 
     @Override
     public Boolean parse(String input, ParseResult result) {
-        String lower = input.toLowerCase();
-        if (lower.equals("true") || lower.equals("yes") || lower.equals("1") || lower.equals("on")) {
-            return true;
-        } else if (lower.equals("false") || lower.equals("no") || lower.equals("0") || lower.equals("off")) {
-            return false;
-        } else {
-            result.fail(Message.raw("Show-player must be true or false."));
-            return null;
+        Boolean value = parseFlag(input);
+        if (value == null) {
+            result.fail(MSG_INVALID);
+        }
+        return value;
+    }
+
+    /**
+     * Parse a boolean flag without allocating, returning null for unknown input.
+     */
+    static Boolean parseFlag(String input) {
+        if (input.equalsIgnoreCase("true") || input.equalsIgnoreCase("yes") || input.equals("1") || input.equalsIgnoreCase("on")) {
+            return Boolean.TRUE;
+        } else if (input.equalsIgnoreCase("false") || input.equalsIgnoreCase("no") || input.equals("0") || input.equalsIgnoreCase("off")) {
+            return Boolean.FALSE;
         }
+        return null;
     }
 }
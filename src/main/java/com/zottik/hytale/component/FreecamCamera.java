@@ -0,0 +1,140 @@
+package com.zottik.hytale.component;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Where a freecam player's camera is, as far as the server knows.
+ *
+ * The freecam settings apply the client's movement input to the player
+ * entity ({@code ApplyMovementType.Position}), so while the camera flies
+ * freely the player's body moves with it and the client reports it like
+ * normal movement. A free camera is therefore the body's position plus the
+ * offset it had from the body when the server last placed it, looking where
+ * the head looks. During path playback and broadcast watching the camera is
+ * the last frame sent, and while following it is where the followed player
+ * is looking from.
+ *
+ * Written on the player's world thread and on the playback thread, read on
+ * the world thread. The fields are volatile; a reader may see a position
+ * from one frame and a rotation from the next, which is harmless here.
+ */
+public final class FreecamCamera {
+
+    private volatile double x, y, z;
+    private volatile float yaw, pitch;
+    private volatile boolean driven;
+    private volatile Ref<EntityStore> attachedTo;
+
+    // The player's own entity, which a free camera moves with
+    private final Ref<EntityStore> body;
+    private volatile double offsetX, offsetY, offsetZ;
+    // Set when a free camera was placed and its offset from the body is not yet known
+    private volatile boolean offsetPending;
+
+    public FreecamCamera(Ref<EntityStore> body, double x, double y, double z, float yaw, float pitch) {
+        this.body = body;
+        place(x, y, z, yaw, pitch);
+    }
+
+    /**
+     * The server handed the client a free camera at this point. From here on
+     * the camera moves with the player's body; the offset between them is
+     * taken at the next {@link #resolve}.
+     */
+    public void place(double x, double y, double z, float yaw, float pitch) {
+        this.attachedTo = null;
+        this.driven = false;
+        set(x, y, z, yaw, pitch);
+        this.offsetPending = true;
+    }
+
+    /**
+     * The server sent the camera to this point as one frame of a playback
+     * or broadcast.
+     */
+    public void drive(double x, double y, double z, float yaw, float pitch) {
+        this.attachedTo = null;
+        set(x, y, z, yaw, pitch);
+        this.driven = true;
+    }
+
+    /**
+     * The camera was attached to a player on the client and moves with them.
+     * Must run on the world thread.
+     */
+    public void attach(Ref<EntityStore> target) {
+        this.attachedTo = target;
+        this.driven = false;
+    }
+
+    /**
+     * Whether the camera flies freely with the player's body, rather than
+     * being driven by a playback or broadcast or attached to another player.
+     */
+    public boolean isFree() {
+        return !driven && attachedTo == null;
+    }
+
+    /**
+     * Bring the camera up to date with the entity that moves it: the body of
+     * a free camera or the player an attached camera follows. Call before
+     * reading the position. Returns false if that entity is gone, in which
+     * case the position is the last one known. Must run on the world thread
+     * that owns the store.
+     */
+    public boolean resolve(Store<EntityStore> store) {
+        if (driven) {
+            return true;
+        }
+        Ref<EntityStore> attached = attachedTo;
+        Ref<EntityStore> source = attached != null ? attached : body;
+        if (source == null || !source.isValid() || source.getStore() != store) {
+            return false;
+        }
+        PlayerRef sourcePlayer = store.getComponent(source, PlayerRef.getComponentType());
+        if (sourcePlayer == null) {
+            return false;
+        }
+        Vector3d position = sourcePlayer.getTransform().getPosition();
+        Vector3f rotation = sourcePlayer.getHeadRotation();
+        if (attached != null) {
+            set(position.x, position.y, position.z, rotation.getYaw(), rotation.getPitch());
+            return true;
+        }
+        if (offsetPending) {
+            offsetX = x - position.x;
+            offsetY = y - position.y;
+            offsetZ = z - position.z;
+            offsetPending = false;
+        }
+        set(position.x + offsetX, position.y + offsetY, position.z + offsetZ, rotation.getYaw(), rotation.getPitch());
+        return true;
+    }
+
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public double getZ() { return z; }
+    public float getYaw() { return yaw; }
+    public float getPitch() { return pitch; }
+
+    /**
+     * Offset of a free camera from the body, for moving the body so the
+     * camera lands on a point. Only valid after {@link #resolve}.
+     */
+    public double getOffsetX() { return offsetX; }
+    public double getOffsetY() { return offsetY; }
+    public double getOffsetZ() { return offsetZ; }
+
+    private void set(double x, double y, double z, float yaw, float pitch) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+    }
+}
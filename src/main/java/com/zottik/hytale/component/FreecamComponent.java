@@ -0,0 +1,99 @@
+package com.zottik.hytale.component;
+
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Marker component present on a player entity only while freecam is active.
+ *
+ * Systems that only care about freecam players query on this component, so
+ * the archetype filter skips every other player. It also carries the saved
+ * origin, the session's current speed and show-player settings, and the
+ * camera as far as the server knows it.
+ */
+public class FreecamComponent implements Component<EntityStore> {
+
+    private static ComponentType<EntityStore, FreecamComponent> componentType;
+
+    // Original position when freecam was enabled
+    private double originalX, originalY, originalZ;
+    private float originalYaw, originalPitch;
+
+    // Current settings of the session, changed live by /freecam --speed and --show-player
+    private int speed;
+    private boolean showPlayer;
+
+    // Game mode to restore when the session ends, null if unknown
+    private GameMode previousGameMode;
+
+    // Last known camera position, starting at the origin
+    private FreecamCamera camera;
+
+    public FreecamComponent() {
+        this.camera = new FreecamCamera(null, 0.0, 0.0, 0.0, 0.0f, 0.0f);
+    }
+
+    /**
+     * Create a session. The body is the player's own entity, which the free
+     * camera moves with.
+     */
+    public FreecamComponent(Ref<EntityStore> body, double x, double y, double z, float yaw, float pitch,
+                            int speed, boolean showPlayer, GameMode previousGameMode) {
+        this.originalX = x;
+        this.originalY = y;
+        this.originalZ = z;
+        this.originalYaw = yaw;
+        this.originalPitch = pitch;
+        this.speed = speed;
+        this.showPlayer = showPlayer;
+        this.previousGameMode = previousGameMode;
+        this.camera = new FreecamCamera(body, x, y, z, yaw, pitch);
+    }
+
+    /**
+     * Get the registered component type.
+     */
+    public static ComponentType<EntityStore, FreecamComponent> getComponentType() {
+        return componentType;
+    }
+
+    /**
+     * Set the component type, called once when the plugin registers it.
+     */
+    public static void setComponentType(ComponentType<EntityStore, FreecamComponent> type) {
+        componentType = type;
+    }
+
+    public double getOriginalX() { return originalX; }
+    public double getOriginalY() { return originalY; }
+    public double getOriginalZ() { return originalZ; }
+    public float getOriginalYaw() { return originalYaw; }
+    public float getOriginalPitch() { return originalPitch; }
+    public int getSpeed() { return speed; }
+    public boolean isShowPlayer() { return showPlayer; }
+    public GameMode getPreviousGameMode() { return previousGameMode; }
+    public FreecamCamera getCamera() { return camera; }
+
+    /**
+     * Change the session's settings. Must run on the player's world thread.
+     */
+    public void setSettings(int speed, boolean showPlayer) {
+        this.speed = speed;
+        this.showPlayer = showPlayer;
+    }
+
+    @Nonnull
+    @Override
+    public FreecamComponent clone() {
+        FreecamComponent copy = new FreecamComponent(null, originalX, originalY, originalZ, originalYaw, originalPitch,
+            speed, showPlayer, previousGameMode);
+        // Shared, so a playback holding the camera keeps updating the live copy
+        copy.camera = camera;
+        return copy;
+    }
+}
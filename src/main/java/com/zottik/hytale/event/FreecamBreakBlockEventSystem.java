@@ -1,40 +0,0 @@
-package com.zottik.hytale.event;
-
-import com.hypixel.hytale.component.ArchetypeChunk;
-import com.hypixel.hytale.component.CommandBuffer;
-import com.hypixel.hytale.component.Store;
-import com.hypixel.hytale.component.query.Query;
-import com.hypixel.hytale.component.system.EntityEventSystem;
-import com.hypixel.hytale.server.core.event.events.ecs.BreakBlockEvent;
-import com.hypixel.hytale.server.core.universe.PlayerRef;
-import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.zottik.hytale.FreecamState;
-
-import javax.annotation.Nonnull;
-
-/**
- * Event system that prevents block breaking while freecam is active.
- */
-public class FreecamBreakBlockEventSystem extends EntityEventSystem<EntityStore, BreakBlockEvent> {
-
-    public FreecamBreakBlockEventSystem() {
-        super(BreakBlockEvent.class);
-    }
-
-    @Override
-    public void handle(int index,
-                       @Nonnull ArchetypeChunk<EntityStore> chunk,
-                       @Nonnull Store<EntityStore> store,
-                       @Nonnull CommandBuffer<EntityStore> buffer,
-                       @Nonnull BreakBlockEvent event) {
-        PlayerRef playerRef = chunk.getComponent(index, PlayerRef.getComponentType());
-        if (playerRef != null && FreecamState.getInstance().isFreecamEnabled(playerRef.getUuid())) {
-            event.setCancelled(true);
-        }
-    }
-
-    @Override
-    public Query<EntityStore> getQuery() {
-        return PlayerRef.getComponentType();
-    }
-}
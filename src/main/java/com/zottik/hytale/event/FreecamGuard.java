@@ -0,0 +1,42 @@
+package com.zottik.hytale.event;
+
+/**
+ * Interactions that can be blocked while a player is in freecam.
+ *
+ * Each guard is one cancellable ECS event. Whether it is blocked is read
+ * from the {@code guard.<key>} config entry into a table indexed by
+ * ordinal, and the event class each guard listens to is mapped in
+ * {@link FreecamGuardSystem#create}, so adding a guarded interaction is one
+ * constant here and one line there.
+ */
+public enum FreecamGuard {
+    BREAK_BLOCK("break-block", "BreakBlockEvent"),
+    DAMAGE_BLOCK("damage-block", "DamageBlockEvent"),
+    PLACE_BLOCK("place-block", "PlaceBlockEvent"),
+    USE_BLOCK("use-block", "UseBlockEvent"),
+    PICKUP_ITEM("pickup-item", "InteractivelyPickupItemEvent"),
+    DROP_ITEM("drop-item", "DropItemEvent"),
+    DAMAGE_ENTITY("damage-entity", "Damage");
+
+    private final String key;
+    private final String eventName;
+
+    FreecamGuard(String key, String eventName) {
+        this.key = key;
+        this.eventName = eventName;
+    }
+
+    /**
+     * Config key of this guard, without the {@code guard.} prefix.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Name of the guarded event, for reports.
+     */
+    public String getEventName() {
+        return eventName;
+    }
+}
@@ -0,0 +1,120 @@
+package com.zottik.hytale.event;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.SystemGroup;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.CancellableEcsEvent;
+import com.hypixel.hytale.component.system.EntityEventSystem;
+import com.hypixel.hytale.server.core.event.events.ecs.BreakBlockEvent;
+import com.hypixel.hytale.server.core.event.events.ecs.DamageBlockEvent;
+import com.hypixel.hytale.server.core.event.events.ecs.DropItemEvent;
+import com.hypixel.hytale.server.core.event.events.ecs.InteractivelyPickupItemEvent;
+import com.hypixel.hytale.server.core.event.events.ecs.PlaceBlockEvent;
+import com.hypixel.hytale.server.core.event.events.ecs.UseBlockEvent;
+import com.hypixel.hytale.server.core.modules.entity.damage.Damage;
+import com.hypixel.hytale.server.core.modules.entity.damage.DamageModule;
+import com.hypixel.hytale.server.core.modules.entitystats.EntityStatMap;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.FreecamState;
+import com.zottik.hytale.component.FreecamComponent;
+import com.zottik.hytale.metrics.FreecamGuardEvent;
+import com.zottik.hytale.metrics.FreecamMetrics;
+
+import javax.annotation.Nonnull;
+import java.util.function.Function;
+
+/**
+ * Event system that cancels a guarded interaction while freecam is active.
+ *
+ * One generic system serves every {@link FreecamGuard}; {@link #create}
+ * maps each guard to its event class. Whether a guard is blocked is a
+ * single lookup in the config's policy table, so guards can be switched
+ * off without unregistering anything.
+ *
+ * Most events are dispatched to the acting entity, and the query only
+ * matches entities in freecam. Entity damage is dispatched to the victim,
+ * so that guard matches entities with stats (the only ones damage applies
+ * to), returns at once in worlds where nobody is in freecam, and otherwise
+ * checks the damage source. It runs in the damage module's filter group,
+ * which the server runs before damage is applied.
+ */
+public class FreecamGuardSystem<E extends CancellableEcsEvent> extends EntityEventSystem<EntityStore, E> {
+
+    private final FreecamGuard guard;
+    // Maps an event to the entity that caused it, or null if that is the entity it is dispatched to
+    private final Function<E, Ref<EntityStore>> actor;
+
+    private FreecamGuardSystem(Class<E> eventClass, FreecamGuard guard, Function<E, Ref<EntityStore>> actor) {
+        super(eventClass);
+        this.guard = guard;
+        this.actor = actor;
+    }
+
+    /**
+     * Create the system for a guard.
+     */
+    public static FreecamGuardSystem<?> create(FreecamGuard guard) {
+        return switch (guard) {
+            case BREAK_BLOCK -> new FreecamGuardSystem<>(BreakBlockEvent.class, guard, null);
+            case DAMAGE_BLOCK -> new FreecamGuardSystem<>(DamageBlockEvent.class, guard, null);
+            case PLACE_BLOCK -> new FreecamGuardSystem<>(PlaceBlockEvent.class, guard, null);
+            case USE_BLOCK -> new FreecamGuardSystem<>(UseBlockEvent.Pre.class, guard, null);
+            case PICKUP_ITEM -> new FreecamGuardSystem<>(InteractivelyPickupItemEvent.class, guard, null);
+            case DROP_ITEM -> new FreecamGuardSystem<>(DropItemEvent.PlayerRequest.class, guard, null);
+            case DAMAGE_ENTITY -> new FreecamGuardSystem<>(Damage.class, guard,
+                damage -> damage.getSource() instanceof Damage.EntitySource source ? source.getRef() : null);
+        };
+    }
+
+    @Override
+    public void handle(int index,
+                       @Nonnull ArchetypeChunk<EntityStore> chunk,
+                       @Nonnull Store<EntityStore> store,
+                       @Nonnull CommandBuffer<EntityStore> buffer,
+                       @Nonnull E event) {
+        if (!FreecamPlugin.getInstance().getFreecamConfig().isGuarded(guard)) {
+            return;
+        }
+        Ref<EntityStore> player;
+        if (actor != null) {
+            if (FreecamState.getInstance().getWorldState(store.getExternalData().getWorld()).size() == 0) {
+                return;
+            }
+            player = actor.apply(event);
+            if (player == null || !player.isValid()
+                    || store.getComponent(player, FreecamComponent.getComponentType()) == null) {
+                return;
+            }
+        } else {
+            // The query only matches entities in freecam
+            player = chunk.getReferenceTo(index);
+        }
+        event.setCancelled(true);
+        FreecamMetrics.getInstance().recordGuardCancelled(guard);
+
+        FreecamGuardEvent trace = new FreecamGuardEvent();
+        if (trace.shouldCommit()) {
+            PlayerRef playerRef = store.getComponent(player, PlayerRef.getComponentType());
+            trace.guard = guard.getKey();
+            trace.eventName = guard.getEventName();
+            trace.playerId = playerRef != null ? playerRef.getUuid().toString() : null;
+            trace.commit();
+        }
+    }
+
+    @Override
+    public Query<EntityStore> getQuery() {
+        return actor != null ? EntityStatMap.getComponentType() : FreecamComponent.getComponentType();
+    }
+
+    @Override
+    public SystemGroup<EntityStore> getGroup() {
+        // Damage must be cancelled in the filter stage, before it is applied
+        return actor != null ? DamageModule.get().getFilterDamageGroup() : null;
+    }
+}
@@ -0,0 +1,116 @@
+package com.zottik.hytale.event;
+
+import com.hypixel.hytale.component.Holder;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.event.events.player.DrainPlayerFromWorldEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerReadyEvent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.events.RemoveWorldEvent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.FreecamState;
+import com.zottik.hytale.component.FreecamComponent;
+import com.zottik.hytale.metrics.FreecamMetrics;
+import com.zottik.hytale.storage.FreecamSessionJournal.OpenSession;
+
+import javax.annotation.Nonnull;
+import java.util.UUID;
+
+/**
+ * Ties per-player freecam state to the player's lifecycle.
+ *
+ * Preferences are loaded when a player is ready and dropped when they
+ * disconnect. A player who disconnects or leaves a world while in freecam
+ * has their session handed to {@link FreecamSessionRecovery}, which puts
+ * them back the next time they are ready in a world. When a world is
+ * removed, all of its freecam state is dropped.
+ */
+public class FreecamLifecycleListener {
+
+    private final FreecamSessionRecovery recovery;
+
+    public FreecamLifecycleListener(FreecamSessionRecovery recovery) {
+        this.recovery = recovery;
+    }
+
+    /**
+     * Load a joining player's saved preferences.
+     */
+    public void onPlayerReady(@Nonnull PlayerReadyEvent event) {
+        Ref<EntityStore> entityRef = event.getPlayerRef();
+        Store<EntityStore> store = entityRef.getStore();
+        PlayerRef playerRef = store.getComponent(entityRef, PlayerRef.getComponentType());
+        if (playerRef != null) {
+            FreecamPlugin.getInstance().getPreferenceStore().rehydrate(playerRef.getUuid());
+        }
+    }
+
+    /**
+     * Drop a disconnecting player's state, keeping an open session for
+     * recovery on their next join.
+     */
+    public void onPlayerDisconnect(@Nonnull PlayerDisconnectEvent event) {
+        UUID playerId = event.getPlayerRef().getUuid();
+        FreecamPlugin plugin = FreecamPlugin.getInstance();
+        FreecamState state = FreecamState.getInstance();
+
+        plugin.getPathPlayback().stop(playerId);
+        if (state.isFreecamEnabled(playerId)) {
+            FreecamMetrics.getInstance().recordSessionDropped();
+            plugin.getSessionJournal().findOpenSession(playerId).thenAccept(session -> {
+                if (session != null) {
+                    recovery.defer(session);
+                }
+            });
+        }
+        state.removePlayer(playerId);
+
+        // Release the session from the world shard, on the world's thread
+        Ref<EntityStore> entityRef = event.getPlayerRef().getReference();
+        if (entityRef != null && entityRef.isValid()) {
+            World world = entityRef.getStore().getExternalData().getWorld();
+            world.execute(() -> state.getWorldState(world).handOff(playerId));
+        } else {
+            // Already out of the world, let every world release them
+            for (World world : Universe.get().getWorlds().values()) {
+                world.execute(() -> state.getWorldState(world).handOff(playerId));
+            }
+        }
+    }
+
+    /**
+     * Drop every freecam session of a world that is being removed.
+     */
+    public void onRemoveWorld(@Nonnull RemoveWorldEvent event) {
+        FreecamPlugin.getInstance().dropWorld(event.getWorld());
+    }
+
+    /**
+     * End the freecam session of a player leaving a world. Their camera,
+     * position and game mode are restored once they are ready in the next
+     * world.
+     */
+    public void onDrainFromWorld(@Nonnull DrainPlayerFromWorldEvent event) {
+        Holder<EntityStore> holder = event.getHolder();
+        FreecamComponent freecam = holder.getComponent(FreecamComponent.getComponentType());
+        PlayerRef playerRef = holder.getComponent(PlayerRef.getComponentType());
+        if (freecam == null || playerRef == null) {
+            return;
+        }
+        UUID playerId = playerRef.getUuid();
+        holder.removeComponent(FreecamComponent.getComponentType());
+        FreecamPlugin.getInstance().getPathPlayback().stop(playerId);
+        // Hand the session off from the old world's shard to the recovery
+        FreecamState.getInstance().getWorldState(event.getWorld()).handOff(playerId);
+        FreecamMetrics.getInstance().recordSessionDropped();
+
+        recovery.defer(new OpenSession(playerId, event.getWorld().getName(),
+            freecam.getOriginalX(), freecam.getOriginalY(), freecam.getOriginalZ(),
+            freecam.getOriginalYaw(), freecam.getOriginalPitch(),
+            freecam.getPreviousGameMode()));
+    }
+}
@@ -0,0 +1,107 @@
+package com.zottik.hytale.event;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.vector.Transform;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.event.events.player.PlayerReadyEvent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.metrics.FreecamMetrics;
+import com.zottik.hytale.storage.FreecamSessionJournal;
+import com.zottik.hytale.storage.FreecamSessionJournal.OpenSession;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Restores players whose freecam session was still open when the server
+ * stopped unexpectedly, or who disconnected or changed world while in
+ * freecam. When such a player is ready in a world again, their camera is
+ * reset, their body is moved back to the saved origin and their previous
+ * game mode is restored, then the session is closed in the journal.
+ */
+public class FreecamSessionRecovery {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private final FreecamSessionJournal journal;
+    private final Map<UUID, OpenSession> pending = new ConcurrentHashMap<>();
+
+    public FreecamSessionRecovery(FreecamSessionJournal journal, Collection<OpenSession> openSessions) {
+        this.journal = journal;
+        for (OpenSession session : openSessions) {
+            pending.put(session.getPlayerId(), session);
+        }
+        if (!pending.isEmpty()) {
+            LOGGER.atInfo().log("Recovered " + pending.size() + " interrupted freecam sessions.");
+        }
+    }
+
+    /**
+     * Restore a player's session the next time they are ready in a world.
+     */
+    public void defer(OpenSession session) {
+        pending.put(session.getPlayerId(), session);
+    }
+
+    /**
+     * Restore a player as soon as they are ready in a world.
+     */
+    public void onPlayerReady(@Nonnull PlayerReadyEvent event) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Ref<EntityStore> entityRef = event.getPlayerRef();
+        Store<EntityStore> store = entityRef.getStore();
+        PlayerRef playerRef = store.getComponent(entityRef, PlayerRef.getComponentType());
+        if (playerRef == null) {
+            return;
+        }
+        OpenSession session = pending.remove(playerRef.getUuid());
+        if (session == null) {
+            return;
+        }
+        World world = store.getExternalData().getWorld();
+        world.execute(() -> restore(session, playerRef, world, store, entityRef));
+    }
+
+    private void restore(OpenSession session, PlayerRef playerRef, World world,
+                         Store<EntityStore> store, Ref<EntityStore> entityRef) {
+        if (!entityRef.isValid()) {
+            // Try again on their next join
+            pending.put(session.getPlayerId(), session);
+            return;
+        }
+
+        // Make sure the client is not left on the freecam camera
+        playerRef.getPacketHandler().writeNoCache(FreecamPlugin.getInstance().getCameraTemplates().getDisablePacket());
+        FreecamMetrics.getInstance().recordPacketWritten();
+
+        if (world.getName().equals(session.getWorldName())) {
+            Transform transform = new Transform();
+            transform.getPosition().x = session.getOriginalX();
+            transform.getPosition().y = session.getOriginalY();
+            transform.getPosition().z = session.getOriginalZ();
+            Vector3f headRotation = new Vector3f(session.getOriginalYaw(), session.getOriginalPitch(), 0.0f);
+            playerRef.updatePosition(world, transform, headRotation);
+        } else {
+            LOGGER.atWarning().log("Freecam origin of " + playerRef.getUuid() + " was in world "
+                + session.getWorldName() + ", not restoring position in " + world.getName() + ".");
+        }
+
+        if (session.getPreviousGameMode() != null) {
+            Player.setGameMode(entityRef, session.getPreviousGameMode(), store);
+        }
+
+        journal.recordDisable(session.getPlayerId());
+        LOGGER.atInfo().log("Restored " + playerRef.getUuid() + " from an interrupted freecam session.");
+    }
+}
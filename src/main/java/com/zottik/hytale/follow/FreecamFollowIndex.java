@@ -0,0 +1,144 @@
+package com.zottik.hytale.follow;
+
+import com.hypixel.hytale.component.Holder;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.event.events.player.DrainPlayerFromWorldEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.command.FreecamCommand;
+import com.zottik.hytale.component.FreecamComponent;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which freecam players follow which target.
+ *
+ * Following attaches the camera to the target entity on the client, so the
+ * server sends nothing while a follow lasts. The target -> followers index
+ * lets every follower of a player who disconnects or leaves the world be
+ * detached together, with one task per world.
+ */
+public class FreecamFollowIndex {
+
+    // Target -> its followers
+    private final Map<UUID, Set<UUID>> followersByTarget = new ConcurrentHashMap<>();
+    // Follower -> its target
+    private final Map<UUID, UUID> targetByFollower = new ConcurrentHashMap<>();
+
+    /**
+     * Record that a player follows a target, replacing any previous target.
+     */
+    public void follow(UUID followerId, UUID targetId) {
+        unfollow(followerId);
+        targetByFollower.put(followerId, targetId);
+        followersByTarget.computeIfAbsent(targetId, id -> ConcurrentHashMap.newKeySet()).add(followerId);
+    }
+
+    /**
+     * Stop tracking a follower, returning the target they followed or null.
+     */
+    public UUID unfollow(UUID followerId) {
+        UUID targetId = targetByFollower.remove(followerId);
+        if (targetId != null) {
+            followersByTarget.computeIfPresent(targetId, (id, followers) -> {
+                followers.remove(followerId);
+                return followers.isEmpty() ? null : followers;
+            });
+        }
+        return targetId;
+    }
+
+    /**
+     * Get the target a player follows, or null.
+     */
+    public UUID getTarget(UUID followerId) {
+        return targetByFollower.get(followerId);
+    }
+
+    /**
+     * Detach everyone following a disconnecting player, and stop tracking
+     * them as a follower.
+     */
+    public void onPlayerDisconnect(@Nonnull PlayerDisconnectEvent event) {
+        PlayerRef playerRef = event.getPlayerRef();
+        leave(playerRef.getUuid(), playerRef.getUsername());
+    }
+
+    /**
+     * Detach everyone following a player who leaves a world. Followers can
+     * only attach to entities in their own world.
+     */
+    public void onDrainFromWorld(@Nonnull DrainPlayerFromWorldEvent event) {
+        Holder<EntityStore> holder = event.getHolder();
+        PlayerRef playerRef = holder.getComponent(PlayerRef.getComponentType());
+        if (playerRef != null) {
+            leave(playerRef.getUuid(), playerRef.getUsername());
+        }
+    }
+
+    private void leave(UUID playerId, String username) {
+        if (targetByFollower.isEmpty()) {
+            return;
+        }
+        unfollow(playerId);
+        Set<UUID> followers = followersByTarget.remove(playerId);
+        if (followers == null) {
+            return;
+        }
+
+        // Group the followers by world and detach each group in one task
+        Map<World, List<PlayerRef>> byWorld = new HashMap<>();
+        for (UUID followerId : followers) {
+            if (!targetByFollower.remove(followerId, playerId)) {
+                continue; // Already moved on to another target
+            }
+            PlayerRef follower = Universe.get().getPlayer(followerId);
+            Ref<EntityStore> entityRef = follower != null ? follower.getReference() : null;
+            if (entityRef == null || !entityRef.isValid()) {
+                continue;
+            }
+            World world = entityRef.getStore().getExternalData().getWorld();
+            byWorld.computeIfAbsent(world, w -> new ArrayList<>()).add(follower);
+        }
+
+        Message message = Message.raw("Stopped following " + username + ": they left.").color("gray");
+        for (Map.Entry<World, List<PlayerRef>> entry : byWorld.entrySet()) {
+            List<PlayerRef> group = entry.getValue();
+            entry.getKey().execute(() -> {
+                for (PlayerRef follower : group) {
+                    detach(follower, message);
+                }
+            });
+        }
+    }
+
+    /**
+     * Give a follower back a free camera where the target was. Must run on
+     * the follower's world thread.
+     */
+    private static void detach(PlayerRef follower, Message message) {
+        Ref<EntityStore> entityRef = follower.getReference();
+        if (entityRef == null || !entityRef.isValid()) {
+            return;
+        }
+        Store<EntityStore> store = entityRef.getStore();
+        FreecamComponent freecam = store.getComponent(entityRef, FreecamComponent.getComponentType());
+        if (freecam == null) {
+            return; // Left freecam in the meantime
+        }
+        FreecamCommand.releaseCamera(follower, store, freecam);
+        follower.sendMessage(message);
+    }
+}
@@ -0,0 +1,31 @@
+package com.zottik.hytale.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for an interaction cancelled by a freecam guard.
+ * Disabled by default.
+ */
+@Name("com.zottik.hytale.freecam.GuardCancelled")
+@Label("Freecam Guard Cancelled")
+@Description("An interaction cancelled because the player is in freecam")
+@Category("Freecam")
+@Enabled(false)
+@StackTrace(false)
+public class FreecamGuardEvent extends Event {
+
+    @Label("Guard")
+    public String guard;
+
+    @Label("Event")
+    public String eventName;
+
+    @Label("Player")
+    public String playerId;
+}
@@ -0,0 +1,170 @@
+package com.zottik.hytale.metrics;
+
+import com.zottik.hytale.event.FreecamGuard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low-overhead counters and latency histograms for the plugin.
+ *
+ * Recording only touches LongAdders, so world threads never contend on a
+ * lock. Rates are computed when a report is built, from the difference to
+ * the previous report.
+ */
+public class FreecamMetrics {
+
+    private static final FreecamMetrics INSTANCE = new FreecamMetrics();
+
+    private final LongAdder enables = new LongAdder();
+    private final LongAdder disables = new LongAdder();
+    private final LongAdder packetsWritten = new LongAdder();
+    private final LongAdder[] guardCancelled = newAdders(FreecamGuard.values().length);
+    private final LongAdder activePlayers = new LongAdder();
+    private final LongAdder broadcastFramesSkipped = new LongAdder();
+    private final LongAdder togglesThrottled = new LongAdder();
+    private final LongAdder togglesCollapsed = new LongAdder();
+    private final LongAdder idleExits = new LongAdder();
+    // Set once the session journal can no longer write; sessions are then not crash-safe
+    private volatile boolean sessionJournalFailed;
+
+    private final LatencyHistogram enableLatency = new LatencyHistogram();
+    private final LatencyHistogram disableLatency = new LatencyHistogram();
+
+    // Previous report, for toggle rates. Only read and written under the report lock.
+    private final Object reportLock = new Object();
+    private long lastReportNanos = System.nanoTime();
+    private long lastReportToggles;
+
+    private FreecamMetrics() {}
+
+    public static FreecamMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Record a completed enableFreecam and its duration.
+     */
+    public void recordEnable(long nanos) {
+        enables.increment();
+        activePlayers.increment();
+        enableLatency.record(nanos);
+    }
+
+    /**
+     * Record a completed disableFreecam and its duration.
+     */
+    public void recordDisable(long nanos) {
+        disables.increment();
+        activePlayers.decrement();
+        disableLatency.record(nanos);
+    }
+
+    /**
+     * Record a freecam session that ended without disableFreecam (e.g. disconnect).
+     */
+    public void recordSessionDropped() {
+        activePlayers.decrement();
+    }
+
+    /**
+     * Record a camera packet sent through writeNoCache.
+     */
+    public void recordPacketWritten() {
+        packetsWritten.increment();
+    }
+
+    /**
+     * Record a toggle rejected by the per-player rate limit.
+     */
+    public void recordToggleThrottled() {
+        togglesThrottled.increment();
+    }
+
+    /**
+     * Record a toggle that cancelled a pending one inside the debounce window.
+     */
+    public void recordToggleCollapsed() {
+        togglesCollapsed.increment();
+    }
+
+    /**
+     * Record a freecam session ended because the player was idle.
+     */
+    public void recordIdleExit() {
+        idleExits.increment();
+    }
+
+    /**
+     * Record a broadcast camera frame skipped for a viewer whose connection was not writable.
+     */
+    public void recordBroadcastFrameSkipped() {
+        broadcastFramesSkipped.increment();
+    }
+
+    /**
+     * Record that the session journal stopped writing, so open sessions are
+     * no longer recovered after a crash.
+     */
+    public void recordSessionJournalFailed() {
+        sessionJournalFailed = true;
+    }
+
+    /**
+     * Whether the session journal stopped writing.
+     */
+    public boolean isSessionJournalFailed() {
+        return sessionJournalFailed;
+    }
+
+    /**
+     * Record an interaction cancelled by a freecam guard.
+     */
+    public void recordGuardCancelled(FreecamGuard guard) {
+        guardCancelled[guard.ordinal()].increment();
+    }
+
+    /**
+     * Build a human-readable report, one entry per line.
+     */
+    public List<String> report() {
+        long toggles = enables.sum() + disables.sum();
+        double togglesPerSecond;
+        synchronized (reportLock) {
+            long now = System.nanoTime();
+            double seconds = Math.max(1, TimeUnit.NANOSECONDS.toMillis(now - lastReportNanos)) / 1000.0;
+            togglesPerSecond = (toggles - lastReportToggles) / seconds;
+            lastReportNanos = now;
+            lastReportToggles = toggles;
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("Players in freecam: " + activePlayers.sum());
+        lines.add("Toggles: " + enables.sum() + " enables, " + disables.sum() + " disables, "
+            + String.format("%.2f", togglesPerSecond) + "/s since last report");
+        lines.add("Toggles throttled: " + togglesThrottled.sum() + ", collapsed by debounce: " + togglesCollapsed.sum());
+        lines.add("Sessions ended for idleness: " + idleExits.sum());
+        lines.add("enableFreecam: " + enableLatency.summary());
+        lines.add("disableFreecam: " + disableLatency.summary());
+        lines.add("writeNoCache calls: " + packetsWritten.sum());
+        lines.add("Broadcast frames skipped for slow viewers: " + broadcastFramesSkipped.sum());
+        lines.add("Session journal: " + (sessionJournalFailed ? "FAILED, sessions are not recovered after a crash" : "ok"));
+        StringBuilder cancelled = new StringBuilder("Cancelled:");
+        for (FreecamGuard guard : FreecamGuard.values()) {
+            cancelled.append(guard.ordinal() == 0 ? " " : ", ")
+                .append(guardCancelled[guard.ordinal()].sum()).append(' ').append(guard.getEventName());
+        }
+        lines.add(cancelled.toString());
+        return lines;
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,32 @@
+package com.zottik.hytale.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one freecam camera settings build.
+ * Disabled by default.
+ */
+@Name("com.zottik.hytale.freecam.SettingsBuild")
+@Label("Freecam Settings Build")
+@Description("Camera settings stamped from a template")
+@Category("Freecam")
+@Enabled(false)
+@StackTrace(false)
+public class FreecamSettingsBuildEvent extends Event {
+
+    @Label("Speed")
+    public int speed;
+
+    @Label("Show Player")
+    public boolean showPlayer;
+
+    @Label("Follow")
+    @Description("Whether the camera is attached to an entity")
+    public boolean follow;
+}
@@ -0,0 +1,103 @@
+package com.zottik.hytale.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.util.UUID;
+
+/**
+ * Flight recorder event for one freecam enable or disable, with the time
+ * spent in each phase of the transition.
+ *
+ * Disabled by default. When the event is not being recorded, begin, the
+ * phase marks and commit do nothing beyond an enabled check, so the
+ * transition code can use it unconditionally.
+ */
+@Name("com.zottik.hytale.freecam.Transition")
+@Label("Freecam Transition")
+@Description("A player entering or leaving freecam")
+@Category("Freecam")
+@Enabled(false)
+@StackTrace(false)
+public class FreecamTransitionEvent extends Event {
+
+    @Label("Player")
+    private String playerId;
+
+    @Label("World")
+    private String world;
+
+    @Label("Enable")
+    private boolean enable;
+
+    @Label("State Update")
+    @Timespan(Timespan.NANOSECONDS)
+    private long stateUpdate;
+
+    @Label("Set Game Mode")
+    @Timespan(Timespan.NANOSECONDS)
+    private long setGameMode;
+
+    @Label("Packet Write")
+    @Timespan(Timespan.NANOSECONDS)
+    private long packetWrite;
+
+    @Label("Update Position")
+    @Timespan(Timespan.NANOSECONDS)
+    private long updatePosition;
+
+    // Start of the phase being timed, not recorded
+    private transient long phaseStart;
+
+    /**
+     * Start timing the transition of a player.
+     */
+    public void begin(UUID playerId, String world, boolean enable) {
+        if (!isEnabled()) {
+            return;
+        }
+        this.playerId = playerId.toString();
+        this.world = world;
+        this.enable = enable;
+        begin();
+    }
+
+    /**
+     * Start timing a phase.
+     */
+    public void mark() {
+        if (isEnabled()) {
+            phaseStart = System.nanoTime();
+        }
+    }
+
+    public void stateUpdated() {
+        if (isEnabled()) {
+            stateUpdate += System.nanoTime() - phaseStart;
+        }
+    }
+
+    public void gameModeSet() {
+        if (isEnabled()) {
+            setGameMode += System.nanoTime() - phaseStart;
+        }
+    }
+
+    public void packetWritten() {
+        if (isEnabled()) {
+            packetWrite += System.nanoTime() - phaseStart;
+        }
+    }
+
+    public void positionUpdated() {
+        if (isEnabled()) {
+            updatePosition += System.nanoTime() - phaseStart;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.zottik.hytale.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed power-of-two microsecond buckets.
+ *
+ * Bucket i counts samples below 2^i microseconds (the last bucket also
+ * takes everything slower), so recording is a leading-zero count and a
+ * LongAdder increment. Percentiles are reported as the upper bound of the
+ * bucket they fall in.
+ */
+public class LatencyHistogram {
+
+    // 2^21 us is about two seconds
+    private static final int BUCKETS = 22;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record one sample.
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos) / 1000;
+        int bucket = micros == 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+        buckets[Math.min(bucket, BUCKETS - 1)].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMeanMicros() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : totalNanos.sum() / samples / 1000;
+    }
+
+    public long getMaxMicros() {
+        return maxNanos.get() / 1000;
+    }
+
+    /**
+     * Upper bound, in microseconds, of the bucket holding the given percentile (0-100).
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long samples = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            samples += counts[i];
+        }
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(samples * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    /**
+     * One-line summary for stats output.
+     */
+    public String summary() {
+        return "n=" + getCount()
+            + " mean=" + getMeanMicros() + "us"
+            + " p50<=" + getPercentileMicros(50) + "us"
+            + " p99<=" + getPercentileMicros(99) + "us"
+            + " max=" + getMaxMicros() + "us";
+    }
+}
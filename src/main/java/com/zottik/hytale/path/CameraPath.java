@@ -0,0 +1,53 @@
+package com.zottik.hytale.path;
+
+/**
+ * An immutable recorded camera path: keyframes of time, position and
+ * rotation stored in parallel primitive arrays.
+ */
+public final class CameraPath {
+
+    private final int count;
+    private final int[] timesMs;
+    private final double[] x, y, z;
+    private final float[] yaw, pitch;
+
+    CameraPath(int count, int[] timesMs, double[] x, double[] y, double[] z, float[] yaw, float[] pitch) {
+        this.count = count;
+        this.timesMs = timesMs;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Length of the path in milliseconds.
+     */
+    public int getDurationMs() {
+        return count == 0 ? 0 : timesMs[count - 1];
+    }
+
+    int getTimeMs(int index) { return timesMs[index]; }
+    double getX(int index) { return x[index]; }
+    double getY(int index) { return y[index]; }
+    double getZ(int index) { return z[index]; }
+    float getYaw(int index) { return yaw[index]; }
+    float getPitch(int index) { return pitch[index]; }
+
+    /**
+     * Find the keyframe at or before the given time, scanning forward from a
+     * previous result so sequential playback is O(1) per frame.
+     */
+    int segmentAt(int timeMs, int fromIndex) {
+        int index = Math.max(0, Math.min(fromIndex, count - 1));
+        while (index + 1 < count && timesMs[index + 1] <= timeMs) {
+            index++;
+        }
+        return index;
+    }
+}
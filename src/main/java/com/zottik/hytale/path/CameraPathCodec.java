@@ -0,0 +1,130 @@
+package com.zottik.hytale.path;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Compact delta-encoded binary format for camera paths.
+ *
+ * Positions are quantized to 1/64 block and angles to 1/4096 radian. Each
+ * keyframe is stored as zigzag varint deltas from the previous one, so a
+ * smoothly moving camera costs a handful of bytes per keyframe.
+ *
+ * Layout: magic (int), version (byte), keyframe count (int), then per
+ * keyframe: time delta in ms, x, y, z deltas, yaw and pitch deltas.
+ */
+public final class CameraPathCodec {
+
+    private static final int MAGIC = 0x46435054; // "FCPT"
+    private static final int VERSION = 1;
+    private static final double POSITION_SCALE = 64.0;
+    private static final double ANGLE_SCALE = 4096.0;
+    private static final int MAX_KEYFRAMES = 10_000_000;
+
+    private CameraPathCodec() {}
+
+    public static void write(CameraPath path, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(path.getCount());
+
+        int lastTime = 0;
+        long lastX = 0, lastY = 0, lastZ = 0;
+        long lastYaw = 0, lastPitch = 0;
+        for (int i = 0; i < path.getCount(); i++) {
+            long qx = Math.round(path.getX(i) * POSITION_SCALE);
+            long qy = Math.round(path.getY(i) * POSITION_SCALE);
+            long qz = Math.round(path.getZ(i) * POSITION_SCALE);
+            long qYaw = Math.round(path.getYaw(i) * ANGLE_SCALE);
+            long qPitch = Math.round(path.getPitch(i) * ANGLE_SCALE);
+
+            writeVarLong(out, path.getTimeMs(i) - lastTime);
+            writeVarLong(out, zigzag(qx - lastX));
+            writeVarLong(out, zigzag(qy - lastY));
+            writeVarLong(out, zigzag(qz - lastZ));
+            writeVarLong(out, zigzag(qYaw - lastYaw));
+            writeVarLong(out, zigzag(qPitch - lastPitch));
+
+            lastTime = path.getTimeMs(i);
+            lastX = qx;
+            lastY = qy;
+            lastZ = qz;
+            lastYaw = qYaw;
+            lastPitch = qPitch;
+        }
+    }
+
+    public static CameraPath read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a freecam camera path");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported camera path version " + version);
+        }
+        int count = in.readInt();
+        if (count < 0 || count > MAX_KEYFRAMES) {
+            throw new IOException("Invalid keyframe count " + count);
+        }
+
+        int[] times = new int[count];
+        double[] x = new double[count];
+        double[] y = new double[count];
+        double[] z = new double[count];
+        float[] yaw = new float[count];
+        float[] pitch = new float[count];
+
+        long time = 0;
+        long qx = 0, qy = 0, qz = 0;
+        long qYaw = 0, qPitch = 0;
+        for (int i = 0; i < count; i++) {
+            time += readVarLong(in);
+            qx += unzigzag(readVarLong(in));
+            qy += unzigzag(readVarLong(in));
+            qz += unzigzag(readVarLong(in));
+            qYaw += unzigzag(readVarLong(in));
+            qPitch += unzigzag(readVarLong(in));
+
+            times[i] = (int) time;
+            x[i] = qx / POSITION_SCALE;
+            y[i] = qy / POSITION_SCALE;
+            z[i] = qz / POSITION_SCALE;
+            yaw[i] = (float) (qYaw / ANGLE_SCALE);
+            pitch[i] = (float) (qPitch / ANGLE_SCALE);
+        }
+        return new CameraPath(count, times, x, y, z, yaw, pitch);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,76 @@
+package com.zottik.hytale.path;
+
+/**
+ * Records camera keyframes into a fixed-size ring buffer of primitive
+ * arrays. Once full, the oldest keyframes are overwritten, so a long
+ * recording keeps its most recent part. Not thread-safe; owned by the
+ * world thread of the recording player.
+ */
+public final class CameraPathRecorder {
+
+    private final int capacity;
+    private final int[] timesMs;
+    private final double[] x, y, z;
+    private final float[] yaw, pitch;
+
+    private int head;   // Next slot to write
+    private int size;
+    private double elapsedMs;
+
+    public CameraPathRecorder(int capacity) {
+        this.capacity = capacity;
+        this.timesMs = new int[capacity];
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+        this.z = new double[capacity];
+        this.yaw = new float[capacity];
+        this.pitch = new float[capacity];
+    }
+
+    /**
+     * Add a keyframe, dt seconds after the previous one.
+     */
+    public void add(float dt, double px, double py, double pz, float pYaw, float pPitch) {
+        if (size > 0) {
+            elapsedMs += dt * 1000.0;
+        }
+        timesMs[head] = (int) elapsedMs;
+        x[head] = px;
+        y[head] = py;
+        z[head] = pz;
+        yaw[head] = pYaw;
+        pitch[head] = pPitch;
+        head = head + 1 == capacity ? 0 : head + 1;
+        if (size < capacity) {
+            size++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copy the recorded keyframes, oldest first, into a path starting at time 0.
+     */
+    public CameraPath toPath() {
+        int[] outTimes = new int[size];
+        double[] outX = new double[size];
+        double[] outY = new double[size];
+        double[] outZ = new double[size];
+        float[] outYaw = new float[size];
+        float[] outPitch = new float[size];
+        int start = size < capacity ? 0 : head;
+        int baseTime = size == 0 ? 0 : timesMs[start];
+        for (int i = 0; i < size; i++) {
+            int slot = (start + i) % capacity;
+            outTimes[i] = timesMs[slot] - baseTime;
+            outX[i] = x[slot];
+            outY[i] = y[slot];
+            outZ[i] = z[slot];
+            outYaw[i] = yaw[slot];
+            outPitch[i] = pitch[slot];
+        }
+        return new CameraPath(size, outTimes, outX, outY, outZ, outYaw, outPitch);
+    }
+}
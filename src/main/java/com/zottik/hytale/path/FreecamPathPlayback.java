@@ -0,0 +1,178 @@
+package com.zottik.hytale.path;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.protocol.ClientCameraView;
+import com.hypixel.hytale.protocol.ServerCameraSettings;
+import com.hypixel.hytale.protocol.packets.camera.SetServerCamera;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.component.FreecamCamera;
+import com.zottik.hytale.metrics.FreecamMetrics;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays recorded camera paths back to players.
+ *
+ * A single fixed-rate task on a dedicated thread advances every active
+ * playback, interpolates the camera between keyframes and sends it to the
+ * player, so playback never runs on (or waits for) a world thread.
+ *
+ * Each playback builds its camera settings and packet once and only moves
+ * the position and rotation in place for every frame, so frames allocate
+ * nothing. A frame still waiting to be encoded may go out with a later
+ * frame's pose, which is what the client would be shown next anyway.
+ */
+public class FreecamPathPlayback {
+
+    private static final double TWO_PI = Math.PI * 2.0;
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<UUID, Playback> playbacks = new ConcurrentHashMap<>();
+
+    public FreecamPathPlayback(int rateHz) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Freecam-Playback");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMicros = 1_000_000L / rateHz;
+        scheduler.scheduleAtFixedRate(this::tick, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Start playing a path to a player, replacing any playback in progress.
+     * Each frame sent is recorded on the player's camera.
+     */
+    public void start(PlayerRef playerRef, FreecamCamera camera, CameraPath path, int speed, boolean showPlayer) {
+        if (path.getCount() == 0) {
+            return;
+        }
+        ServerCameraSettings settings = FreecamPlugin.getInstance().getCameraTemplates().create(
+            path.getX(0), path.getY(0), path.getZ(0), path.getYaw(0), path.getPitch(0), 0.0f, speed, showPlayer);
+        SetServerCamera packet = new SetServerCamera(ClientCameraView.Custom, true, settings);
+        playbacks.put(playerRef.getUuid(), new Playback(playerRef, camera, path, settings, packet, System.nanoTime()));
+    }
+
+    /**
+     * Stop a player's playback, if any.
+     */
+    public void stop(UUID playerId) {
+        playbacks.remove(playerId);
+    }
+
+    /**
+     * Check whether a player is watching a playback.
+     */
+    public boolean isPlaying(UUID playerId) {
+        return playbacks.containsKey(playerId);
+    }
+
+    /**
+     * Stop all playbacks and the playback thread.
+     */
+    public void shutdown() {
+        playbacks.clear();
+        scheduler.shutdownNow();
+    }
+
+    private void tick() {
+        if (playbacks.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        Iterator<Playback> iterator = playbacks.values().iterator();
+        while (iterator.hasNext()) {
+            Playback playback = iterator.next();
+            Ref<EntityStore> entityRef = playback.playerRef.getReference();
+            if (entityRef == null || !entityRef.isValid()) {
+                iterator.remove();
+                continue;
+            }
+            int timeMs = (int) ((now - playback.startNanos) / 1_000_000L);
+            boolean finished = timeMs >= playback.path.getDurationMs();
+            send(playback, finished ? playback.path.getDurationMs() : timeMs, finished);
+            if (finished) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Interpolate the camera at a time along the path and send it. After the
+     * last frame the player flies the camera freely from where it stopped.
+     */
+    private void send(Playback playback, int timeMs, boolean last) {
+        CameraPath path = playback.path;
+        int index = path.segmentAt(timeMs, playback.cursor);
+        playback.cursor = index;
+
+        double x = path.getX(index);
+        double y = path.getY(index);
+        double z = path.getZ(index);
+        float yaw = path.getYaw(index);
+        float pitch = path.getPitch(index);
+
+        int next = index + 1;
+        if (next < path.getCount()) {
+            int start = path.getTimeMs(index);
+            int span = path.getTimeMs(next) - start;
+            if (span > 0) {
+                double t = Math.min(1.0, Math.max(0.0, (timeMs - start) / (double) span));
+                x += (path.getX(next) - x) * t;
+                y += (path.getY(next) - y) * t;
+                z += (path.getZ(next) - z) * t;
+                // Turn the short way round when yaw wraps
+                double yawDelta = path.getYaw(next) - yaw;
+                yawDelta -= TWO_PI * Math.rint(yawDelta / TWO_PI);
+                yaw += (float) (yawDelta * t);
+                pitch += (float) ((path.getPitch(next) - pitch) * t);
+            }
+        }
+
+        // The settings own their position and rotation, so they can be moved in place
+        ServerCameraSettings settings = playback.settings;
+        settings.position.x = x;
+        settings.position.y = y;
+        settings.position.z = z;
+        settings.rotation.yaw = yaw;
+        settings.rotation.pitch = pitch;
+        playback.playerRef.getPacketHandler().writeNoCache(playback.packet);
+        FreecamMetrics.getInstance().recordPacketWritten();
+        if (last) {
+            playback.camera.place(x, y, z, yaw, pitch);
+        } else {
+            playback.camera.drive(x, y, z, yaw, pitch);
+        }
+    }
+
+    /**
+     * One player's playback. Only touched by the playback thread after creation.
+     */
+    private static final class Playback {
+        private final PlayerRef playerRef;
+        private final FreecamCamera camera;
+        private final CameraPath path;
+        private final ServerCameraSettings settings;
+        private final SetServerCamera packet;
+        private final long startNanos;
+        private int cursor;
+
+        private Playback(PlayerRef playerRef, FreecamCamera camera, CameraPath path,
+                         ServerCameraSettings settings, SetServerCamera packet, long startNanos) {
+            this.playerRef = playerRef;
+            this.camera = camera;
+            this.path = path;
+            this.settings = settings;
+            this.packet = packet;
+            this.startNanos = startNanos;
+        }
+    }
+}
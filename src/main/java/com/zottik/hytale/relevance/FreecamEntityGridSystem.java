@@ -0,0 +1,46 @@
+package com.zottik.hytale.relevance;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.tick.EntityTickingSystem;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.modules.entity.tracker.NetworkId;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Keeps each world's {@link SpatialGrid} of networked entities up to date
+ * for {@link FreecamRelevanceSystem}. Worlds without a freecam player have
+ * no grid, so the per-entity cost there is one map lookup.
+ */
+public class FreecamEntityGridSystem extends EntityTickingSystem<EntityStore> {
+
+    private final FreecamRelevanceSystem relevance;
+
+    public FreecamEntityGridSystem(FreecamRelevanceSystem relevance) {
+        this.relevance = relevance;
+    }
+
+    @Override
+    public void tick(float dt, int index,
+                     @Nonnull ArchetypeChunk<EntityStore> chunk,
+                     @Nonnull Store<EntityStore> store,
+                     @Nonnull CommandBuffer<EntityStore> buffer) {
+        SpatialGrid<Ref<EntityStore>> grid = relevance.getGrid(store.getExternalData().getWorld());
+        if (grid == null) {
+            return;
+        }
+        Vector3d position = chunk.getComponent(index, TransformComponent.getComponentType()).getPosition();
+        grid.update(chunk.getReferenceTo(index), position.x, position.y, position.z);
+    }
+
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Query.and(NetworkId.getComponentType(), TransformComponent.getComponentType());
+    }
+}
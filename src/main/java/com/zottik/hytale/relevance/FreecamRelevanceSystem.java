@@ -0,0 +1,174 @@
+package com.zottik.hytale.relevance;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.dependency.Dependency;
+import com.hypixel.hytale.component.dependency.Order;
+import com.hypixel.hytale.component.dependency.SystemDependency;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.modules.entity.tracker.EntityTrackerSystems;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.component.FreecamCamera;
+import com.zottik.hytale.component.FreecamComponent;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Centers entity tracking of freecam players on their camera.
+ *
+ * The server's entity tracker collects what each player can see around
+ * their body, which can be far from the camera: a free camera keeps the
+ * offset it was handed out at, and a followed player, path playback or
+ * broadcast moves the camera without the body. Right after that
+ * collection, this system replaces a freecam player's visible set with the
+ * entities within the same view radius of the camera (see
+ * {@link FreecamCamera}), looked up in a uniform grid of the world's
+ * networked entities. Entities around the body stop being sent and
+ * entities around the camera start. When show-player is off, the player's
+ * own body is left out as well.
+ *
+ * A world's grid only exists while one of its players is in freecam, and
+ * is kept up to date by {@link FreecamEntityGridSystem}.
+ */
+public class FreecamRelevanceSystem extends TickingSystem<EntityStore> {
+
+    private static final int CELL_SHIFT = 5; // 32-block cells
+    private static final int PRUNE_INTERVAL_TICKS = 200;
+
+    private static final Set<Dependency<EntityStore>> DEPENDENCIES =
+        Set.of(new SystemDependency<>(Order.AFTER, EntityTrackerSystems.CollectVisible.class));
+
+    // World -> freecam players and entity grid. Each entry is only touched on its world's thread.
+    private final Map<World, WorldRelevance> worlds = new ConcurrentHashMap<>();
+
+    /**
+     * Start centering a player's entity tracking on their camera. Must run
+     * on the world's thread.
+     */
+    public void track(World world, Ref<EntityStore> entityRef) {
+        List<Ref<EntityStore>> viewers = worlds.computeIfAbsent(world, w -> new WorldRelevance()).viewers;
+        if (!viewers.contains(entityRef)) {
+            viewers.add(entityRef);
+        }
+    }
+
+    /**
+     * Hand a player's entity tracking back to the server, dropping the
+     * world's grid once nobody there is in freecam. Must run on the world's
+     * thread.
+     */
+    public void untrack(World world, Ref<EntityStore> entityRef) {
+        WorldRelevance relevance = worlds.get(world);
+        if (relevance != null) {
+            relevance.viewers.remove(entityRef);
+            if (relevance.viewers.isEmpty()) {
+                worlds.remove(world);
+            }
+        }
+    }
+
+    /**
+     * Drop the state of a world that is being removed.
+     */
+    public void dropWorld(World world) {
+        worlds.remove(world);
+    }
+
+    /**
+     * Get a world's entity grid, or null if nobody there is in freecam.
+     */
+    SpatialGrid<Ref<EntityStore>> getGrid(World world) {
+        WorldRelevance relevance = worlds.get(world);
+        return relevance != null ? relevance.grid : null;
+    }
+
+    @Nonnull
+    @Override
+    public Set<Dependency<EntityStore>> getDependencies() {
+        return DEPENDENCIES;
+    }
+
+    @Override
+    public void tick(float dt, int systemIndex, @Nonnull Store<EntityStore> store) {
+        World world = store.getExternalData().getWorld();
+        WorldRelevance relevance = worlds.get(world);
+        if (relevance == null) {
+            return;
+        }
+        if (!FreecamPlugin.getInstance().getFreecamConfig().isRelevanceEnabled()) {
+            relevance.grid = null;
+            return;
+        }
+
+        List<Ref<EntityStore>> viewers = relevance.viewers;
+        for (int i = viewers.size() - 1; i >= 0; i--) {
+            Ref<EntityStore> entityRef = viewers.get(i);
+            FreecamComponent freecam = entityRef.isValid()
+                ? store.getComponent(entityRef, FreecamComponent.getComponentType())
+                : null;
+            if (freecam == null) {
+                // Player left or is no longer in freecam
+                int last = viewers.size() - 1;
+                viewers.set(i, viewers.get(last));
+                viewers.remove(last);
+            }
+        }
+        if (viewers.isEmpty()) {
+            worlds.remove(world);
+            return;
+        }
+
+        if (relevance.grid == null) {
+            relevance.grid = new SpatialGrid<>(CELL_SHIFT);
+            relevance.ticks = 0;
+        }
+        // A new grid is only complete once the entity pass has run over a whole tick
+        if (relevance.ticks++ == 0) {
+            return;
+        }
+        if (relevance.ticks % PRUNE_INTERVAL_TICKS == 0) {
+            relevance.grid.prune(Ref::isValid);
+        }
+        for (Ref<EntityStore> entityRef : viewers) {
+            recenter(store, relevance.grid, entityRef);
+        }
+    }
+
+    /**
+     * Replace one player's visible entities with those around their camera.
+     */
+    private static void recenter(Store<EntityStore> store, SpatialGrid<Ref<EntityStore>> grid, Ref<EntityStore> entityRef) {
+        FreecamComponent freecam = store.getComponent(entityRef, FreecamComponent.getComponentType());
+        FreecamCamera camera = freecam.getCamera();
+        EntityTrackerSystems.EntityViewer viewer = store.getComponent(entityRef, EntityTrackerSystems.EntityViewer.getComponentType());
+        if (viewer == null) {
+            return;
+        }
+
+        camera.resolve(store);
+        Set<Ref<EntityStore>> visible = viewer.visible;
+        visible.clear();
+        grid.query(camera.getX(), camera.getY(), camera.getZ(), viewer.viewRadiusBlocks, Ref::isValid, visible::add);
+        if (!freecam.isShowPlayer()) {
+            // The player cannot see their own body, so do not send it to them
+            visible.remove(entityRef);
+        }
+    }
+
+    /**
+     * Freecam players of one world and the grid of its entities.
+     */
+    private static final class WorldRelevance {
+        private final List<Ref<EntityStore>> viewers = new ArrayList<>();
+        // Null until the first tick, or while relevance is disabled
+        private SpatialGrid<Ref<EntityStore>> grid;
+        private long ticks;
+    }
+}
@@ -0,0 +1,156 @@
+package com.zottik.hytale.relevance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Uniform grid of entity positions over the XZ plane.
+ *
+ * Entities are moved in place as they report positions; an entity only
+ * changes cell lists when it crosses a cell border, and both the move and
+ * the removal are O(1) (swap-remove with the index kept on the entry).
+ * A radius query visits only the cells overlapping the radius.
+ *
+ * Not thread-safe: each grid belongs to one world thread.
+ */
+public class SpatialGrid<T> {
+
+    private final int cellShift;
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    private final Map<T, Entry<T>> entries = new HashMap<>();
+
+    /**
+     * Create a grid with cells of 2^cellShift blocks on each side.
+     */
+    public SpatialGrid(int cellShift) {
+        this.cellShift = cellShift;
+    }
+
+    /**
+     * Insert an entity or update its position.
+     */
+    public void update(T entity, double x, double y, double z) {
+        long cell = cellKey(floorCell(x), floorCell(z));
+        Entry<T> entry = entries.get(entity);
+        if (entry == null) {
+            entry = new Entry<>(entity);
+            entries.put(entity, entry);
+            link(entry, cell);
+        } else if (entry.cell != cell) {
+            unlink(entry);
+            link(entry, cell);
+        }
+        entry.x = x;
+        entry.y = y;
+        entry.z = z;
+    }
+
+    /**
+     * Remove an entity, if present.
+     */
+    public void remove(T entity) {
+        Entry<T> entry = entries.remove(entity);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    /**
+     * Call the consumer for every entity within radius of a point. Entities
+     * failing the alive check are removed instead of being reported.
+     */
+    public void query(double x, double y, double z, double radius, Predicate<T> alive, Consumer<T> consumer) {
+        int minX = floorCell(x - radius);
+        int maxX = floorCell(x + radius);
+        int minZ = floorCell(z - radius);
+        int maxZ = floorCell(z + radius);
+        double radiusSquared = radius * radius;
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                List<Entry<T>> cell = cells.get(cellKey(cx, cz));
+                if (cell == null) {
+                    continue;
+                }
+                // Backwards, so a swap-remove only moves entries already visited
+                for (int i = cell.size() - 1; i >= 0; i--) {
+                    Entry<T> entry = cell.get(i);
+                    if (!alive.test(entry.entity)) {
+                        remove(entry.entity);
+                        continue;
+                    }
+                    double dx = entry.x - x;
+                    double dy = entry.y - y;
+                    double dz = entry.z - z;
+                    if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                        consumer.accept(entry.entity);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove every entity failing the alive check, including ones no query
+     * has reached.
+     */
+    public void prune(Predicate<T> alive) {
+        List<T> dead = new ArrayList<>();
+        for (T entity : entries.keySet()) {
+            if (!alive.test(entity)) {
+                dead.add(entity);
+            }
+        }
+        for (T entity : dead) {
+            remove(entity);
+        }
+    }
+
+    /**
+     * Number of entities in the grid.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void link(Entry<T> entry, long cell) {
+        List<Entry<T>> list = cells.computeIfAbsent(cell, key -> new ArrayList<>());
+        entry.cell = cell;
+        entry.index = list.size();
+        list.add(entry);
+    }
+
+    private void unlink(Entry<T> entry) {
+        List<Entry<T>> list = cells.get(entry.cell);
+        int last = list.size() - 1;
+        Entry<T> moved = list.get(last);
+        list.set(entry.index, moved);
+        moved.index = entry.index;
+        list.remove(last);
+        if (list.isEmpty()) {
+            cells.remove(entry.cell);
+        }
+    }
+
+    private int floorCell(double coordinate) {
+        return (int) Math.floor(coordinate) >> cellShift;
+    }
+
+    private static long cellKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    private static final class Entry<T> {
+        private final T entity;
+        private long cell;
+        private int index;
+        private double x, y, z;
+
+        private Entry(T entity) {
+            this.entity = entity;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.zottik.hytale.storage;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.zottik.hytale.path.CameraPath;
+import com.zottik.hytale.path.CameraPathCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.regex.Pattern;
+
+/**
+ * Saves and loads recorded camera paths as paths/&lt;name&gt;.fcpath in the
+ * plugin's data directory. All file access runs on the plugin's I/O executor.
+ */
+public class FreecamPathStore {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+    private static final String EXTENSION = ".fcpath";
+
+    private final Path directory;
+    private final ScheduledExecutorService executor;
+
+    public FreecamPathStore(Path dataDirectory, ScheduledExecutorService executor) {
+        this.directory = dataDirectory.resolve("paths");
+        this.executor = executor;
+    }
+
+    /**
+     * Check that a path name is safe to use as a file name.
+     */
+    public static boolean isValidName(String name) {
+        return name != null && NAME_PATTERN.matcher(name).matches();
+    }
+
+    /**
+     * Write a path in the background, replacing any path with the same name.
+     * Completes with the file size in bytes.
+     */
+    public CompletableFuture<Long> save(String name, CameraPath path) {
+        return CompletableFuture.supplyAsync(() -> {
+            Path file = directory.resolve(name + EXTENSION);
+            Path tempFile = directory.resolve(name + EXTENSION + ".tmp");
+            try {
+                Files.createDirectories(directory);
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                    CameraPathCodec.write(path, out);
+                }
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return Files.size(file);
+            } catch (IOException e) {
+                LOGGER.atWarning().log("Failed to save camera path " + name + ": " + e);
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Read a path in the background. Completes with null if no path has that name.
+     */
+    public CompletableFuture<CameraPath> load(String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            Path file = directory.resolve(name + EXTENSION);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                return CameraPathCodec.read(in);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                LOGGER.atWarning().log("Failed to load camera path " + name + ": " + e);
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+    }
+}
@@ -0,0 +1,326 @@
+package com.zottik.hytale.storage;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.zottik.hytale.FreecamState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Persists per-player freecam preferences (speed and show-player).
+ *
+ * Changes are recorded from any thread into a coalescing pending map and
+ * written behind on the plugin's I/O executor as fixed-size records appended
+ * to a log. When the log grows larger than the number of known players it is
+ * compacted into a snapshot. On startup the snapshot and log are memory-mapped
+ * and replayed on the I/O executor, so the server thread never waits on disk.
+ * Players' preferences are only loaded into FreecamState when they join.
+ *
+ * Record layout (18 bytes): UUID most/least significant bits, speed, flags.
+ * A speed of 0 means the player never chose one and follows default-speed.
+ *
+ * Every player who ever saved a preference keeps an entry in the in-memory
+ * index (a boxed UUID and packed int, roughly 100 bytes), the same set the
+ * snapshot holds on disk. That is about a megabyte per ten thousand players;
+ * there is no expiry, since dropping an entry would forget the preference.
+ */
+public class FreecamPreferenceStore {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final int SNAPSHOT_MAGIC = 0x46435046; // "FCPF"
+    private static final int FORMAT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_BYTES = 12;
+    private static final int RECORD_BYTES = 18;
+    private static final int FLAG_SHOW_PLAYER = 1;
+
+    private static final long FLUSH_INTERVAL_MS = 1000;
+    private static final int MIN_COMPACT_RECORDS = 4096;
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    private final Path snapshotFile;
+    private final Path snapshotTempFile;
+    private final Path logFile;
+    private final ScheduledExecutorService executor;
+
+    // Changes not yet written, keyed by player so repeated changes coalesce
+    private final Map<UUID, Integer> pending = new ConcurrentHashMap<>();
+
+    // Everything on disk, packed as speed | flags << 8: one entry per player who
+    // ever saved a preference, so compaction can rewrite the snapshot without
+    // reading it back. Only touched on the executor.
+    private final Map<UUID, Integer> persisted = new HashMap<>();
+    private FileChannel log;
+    private long logRecords;
+    private ByteBuffer writeBuffer = ByteBuffer.allocateDirect(RECORD_BYTES * 256);
+
+    private ScheduledFuture<?> flushTask;
+
+    public FreecamPreferenceStore(Path directory, ScheduledExecutorService executor) {
+        this.snapshotFile = directory.resolve("preferences.snapshot");
+        this.snapshotTempFile = directory.resolve("preferences.snapshot.tmp");
+        this.logFile = directory.resolve("preferences.log");
+        this.executor = executor;
+    }
+
+    /**
+     * Start loading saved preferences and writing changes in the background.
+     */
+    public void start() {
+        executor.execute(this::load);
+        flushTask = executor.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Record a preference change. Never blocks; the write happens later.
+     * Pass a speed of 0 if the player never chose one.
+     */
+    public void record(UUID playerId, int speed, boolean showPlayer) {
+        pending.put(playerId, pack(speed, showPlayer));
+    }
+
+    /**
+     * Restore a joining player's saved preferences into FreecamState in the
+     * background. Runs after loading, since the executor is single-threaded.
+     */
+    public void rehydrate(UUID playerId) {
+        executor.execute(() -> {
+            Integer packed = pending.get(playerId);
+            if (packed == null) {
+                packed = persisted.get(playerId);
+            }
+            if (packed != null) {
+                FreecamState.getInstance().restorePreferences(playerId, speedOf(packed), showPlayerOf(packed));
+            }
+        });
+    }
+
+    /**
+     * Write outstanding changes and close the log, waiting a bounded time.
+     */
+    public void close() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        try {
+            executor.submit(() -> {
+                flush();
+                closeLog();
+            }).get(CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.atWarning().log("Failed to flush freecam preferences on shutdown: " + e);
+        }
+    }
+
+    /**
+     * Load the snapshot and log. Preferences are handed to FreecamState per
+     * player by {@link #rehydrate} when they join.
+     */
+    private void load() {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(logFile.getParent());
+            readSnapshot();
+            long validBytes = readLog();
+
+            log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // Drop a torn record left by a crash mid-write
+            if (log.size() > validBytes) {
+                log.truncate(validBytes);
+            }
+            log.position(validBytes);
+        } catch (IOException e) {
+            LOGGER.atSevere().log("Failed to load freecam preferences: " + e);
+            return;
+        }
+
+        LOGGER.atInfo().log("Loaded freecam preferences for " + persisted.size() + " players in "
+            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms.");
+    }
+
+    private void readSnapshot() throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            if (channel.size() < SNAPSHOT_HEADER_BYTES) {
+                LOGGER.atWarning().log("Ignoring truncated freecam preference snapshot.");
+                return;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                LOGGER.atWarning().log("Ignoring freecam preference snapshot with unknown format.");
+                return;
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count && buffer.remaining() >= RECORD_BYTES; i++) {
+                readRecord(buffer);
+            }
+        }
+    }
+
+    /**
+     * Replay the log over the snapshot, returning the length of its valid prefix.
+     */
+    private long readLog() throws IOException {
+        if (!Files.exists(logFile)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long records = channel.size() / RECORD_BYTES;
+            if (records == 0) {
+                return 0;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, records * RECORD_BYTES);
+            for (long i = 0; i < records; i++) {
+                readRecord(buffer);
+            }
+            logRecords = records;
+            return records * RECORD_BYTES;
+        }
+    }
+
+    private void readRecord(ByteBuffer buffer) {
+        UUID playerId = new UUID(buffer.getLong(), buffer.getLong());
+        int speed = buffer.get();
+        int flags = buffer.get();
+        persisted.put(playerId, speed | (flags << 8));
+    }
+
+    /**
+     * Append pending changes to the log, compacting it when it gets large.
+     */
+    private void flush() {
+        if (log == null || pending.isEmpty()) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = bufferFor(pending.size());
+            int written = 0;
+            Iterator<Map.Entry<UUID, Integer>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<UUID, Integer> entry = iterator.next();
+                UUID playerId = entry.getKey();
+                Integer packed = entry.getValue();
+                // Only drop the entry if it was not changed again meanwhile
+                if (!pending.remove(playerId, packed)) {
+                    continue;
+                }
+                if (buffer.remaining() < RECORD_BYTES) {
+                    writeFully(buffer);
+                }
+                writeRecord(buffer, playerId, packed);
+                persisted.put(playerId, packed);
+                written++;
+            }
+            writeFully(buffer);
+            logRecords += written;
+
+            if (logRecords > Math.max(MIN_COMPACT_RECORDS, persisted.size())) {
+                compact();
+            }
+        } catch (IOException e) {
+            LOGGER.atSevere().log("Failed to write freecam preferences: " + e);
+        }
+    }
+
+    /**
+     * Rewrite all known preferences into a new snapshot and reset the log.
+     */
+    private void compact() throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotTempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = bufferFor(persisted.size());
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(FORMAT_VERSION).putInt(persisted.size());
+            for (Map.Entry<UUID, Integer> entry : persisted.entrySet()) {
+                if (buffer.remaining() < RECORD_BYTES) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                writeRecord(buffer, entry.getKey(), entry.getValue());
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+            channel.force(true);
+        }
+        Files.move(snapshotTempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // Replaying the old log over the new snapshot is harmless, so a crash here loses nothing
+        log.truncate(0);
+        log.position(0);
+        logRecords = 0;
+    }
+
+    private ByteBuffer bufferFor(int records) {
+        int wanted = Math.min(records, 4096) * RECORD_BYTES + SNAPSHOT_HEADER_BYTES;
+        if (writeBuffer.capacity() < wanted) {
+            writeBuffer = ByteBuffer.allocateDirect(wanted);
+        }
+        writeBuffer.clear();
+        return writeBuffer;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            log.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void closeLog() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.force(false);
+            log.close();
+        } catch (IOException e) {
+            LOGGER.atWarning().log("Failed to close freecam preference log: " + e);
+        }
+        log = null;
+    }
+
+    private static void writeRecord(ByteBuffer buffer, UUID playerId, int packed) {
+        buffer.putLong(playerId.getMostSignificantBits());
+        buffer.putLong(playerId.getLeastSignificantBits());
+        buffer.put((byte) speedOf(packed));
+        buffer.put((byte) (packed >>> 8));
+    }
+
+    private static int pack(int speed, boolean showPlayer) {
+        return (speed & 0xFF) | ((showPlayer ? FLAG_SHOW_PLAYER : 0) << 8);
+    }
+
+    private static int speedOf(int packed) {
+        return packed & 0xFF;
+    }
+
+    private static boolean showPlayerOf(int packed) {
+        return ((packed >>> 8) & FLAG_SHOW_PLAYER) != 0;
+    }
+}
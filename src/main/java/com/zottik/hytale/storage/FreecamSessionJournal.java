@@ -0,0 +1,432 @@
+package com.zottik.hytale.storage;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.protocol.GameMode;
+import com.zottik.hytale.metrics.FreecamMetrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal of freecam enable/disable transitions.
+ *
+ * Each enable records the saved origin and previous game mode; each disable
+ * closes the session. Transitions are queued from the world threads and
+ * written by the plugin's I/O executor, which drains everything queued so
+ * far and fsyncs once, so a mass toggle costs a single flush.
+ *
+ * The world thread never waits for the fsync. An enable instead returns a
+ * future that completes once its record is on disk, and the caller holds
+ * back the camera, which the player's body moves with, until then. A crash
+ * therefore never loses the origin of a player who already left it. A
+ * disable that was not flushed yet is replayed as an open session, which
+ * only restores a player to where they already are.
+ *
+ * If the journal cannot be opened or reopened it stops writing: this is
+ * logged once and shown in the metrics report, enables complete right
+ * away, and open sessions are still tracked in memory for players who
+ * rejoin before a restart.
+ *
+ * On startup {@link #recover()} replays the journal and returns every session
+ * that was still open, i.e. players who were in freecam when the server died.
+ *
+ * Record layout: length (int), CRC32C of the payload (int), payload.
+ * Payload: type (byte), UUID, and for enables the world name, origin,
+ * rotation and previous game mode. The game mode is stored by name, so a
+ * server update that reorders the enum cannot restore the wrong one;
+ * enables written by older versions stored its ordinal and are still read.
+ */
+public class FreecamSessionJournal {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    // Enable with the game mode as an ordinal, only read from older journals
+    private static final byte TYPE_ENABLE_ORDINAL = 1;
+    private static final byte TYPE_DISABLE = 2;
+    private static final byte TYPE_ENABLE = 3;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_PAYLOAD_BYTES = 1024;
+    private static final byte NO_GAME_MODE = -1;
+
+    // Compact once the journal holds this many records more than open sessions
+    private static final int COMPACT_SLACK_RECORDS = 1024;
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    private final Path journalFile;
+    private final Path journalTempFile;
+    private final ScheduledExecutorService executor;
+
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    // Payloads of open sessions, for compaction. Only touched on the executor after recovery.
+    private final Map<UUID, byte[]> openSessions = new HashMap<>();
+    // Null before recovery, after close and once the journal failed
+    private FileChannel channel;
+    private boolean failed;
+    private long records;
+
+    public FreecamSessionJournal(Path directory, ScheduledExecutorService executor) {
+        this.journalFile = directory.resolve("sessions.journal");
+        this.journalTempFile = directory.resolve("sessions.journal.tmp");
+        this.executor = executor;
+    }
+
+    /**
+     * Replay the journal, compact it down to the open sessions and return them.
+     * Called once from setup() before any player can join.
+     */
+    public Collection<OpenSession> recover() {
+        Map<UUID, OpenSession> sessions = new HashMap<>();
+        try {
+            Files.createDirectories(journalFile.getParent());
+            if (Files.exists(journalFile)) {
+                replay(sessions);
+            }
+            rewrite();
+            channel = open();
+        } catch (IOException e) {
+            fail("Failed to recover freecam session journal", e);
+            return Collections.emptyList();
+        }
+        return sessions.values();
+    }
+
+    /**
+     * Journal that a player entered freecam. The returned future completes
+     * on the I/O executor once the record is on disk, or right away if the
+     * journal has failed; it never completes exceptionally.
+     */
+    public CompletableFuture<Void> recordEnable(UUID playerId, String worldName, double x, double y, double z,
+                                                float yaw, float pitch, GameMode previousGameMode) {
+        byte[] world = worldName.getBytes(StandardCharsets.UTF_8);
+        byte[] mode = previousGameMode != null ? previousGameMode.name().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        ByteBuffer payload = ByteBuffer.allocate(1 + 16 + 2 + world.length + 24 + 8 + 1 + mode.length);
+        payload.put(TYPE_ENABLE);
+        payload.putLong(playerId.getMostSignificantBits()).putLong(playerId.getLeastSignificantBits());
+        payload.putShort((short) world.length).put(world);
+        payload.putDouble(x).putDouble(y).putDouble(z);
+        payload.putFloat(yaw).putFloat(pitch);
+        // Name length, or NO_GAME_MODE; names are short ASCII identifiers
+        payload.put(previousGameMode != null ? (byte) mode.length : NO_GAME_MODE).put(mode);
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        enqueue(new Pending(payload.array(), durable));
+        return durable;
+    }
+
+    /**
+     * Journal that a player left freecam (or was restored after a crash).
+     */
+    public void recordDisable(UUID playerId) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + 16);
+        payload.put(TYPE_DISABLE);
+        payload.putLong(playerId.getMostSignificantBits()).putLong(playerId.getLeastSignificantBits());
+        enqueue(new Pending(payload.array(), null));
+    }
+
+    /**
+     * Look up a player's open session, including transitions still queued.
+     * Completes with null if the player has no open session.
+     */
+    public CompletableFuture<OpenSession> findOpenSession(UUID playerId) {
+        return CompletableFuture.supplyAsync(() -> {
+            flush();
+            byte[] payload = openSessions.get(playerId);
+            return payload != null ? decode(payload) : null;
+        }, executor);
+    }
+
+    /**
+     * Flush queued transitions and close the journal, waiting a bounded time.
+     */
+    public void close() {
+        try {
+            executor.submit(() -> {
+                flush();
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        LOGGER.atWarning().log("Failed to close freecam session journal: " + e);
+                    }
+                    channel = null;
+                }
+            }).get(CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.atWarning().log("Failed to flush freecam session journal on shutdown: " + e);
+        }
+    }
+
+    private void enqueue(Pending pending) {
+        queue.add(pending);
+        // Group commit: one flush task drains everything queued before it runs
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Write every queued record, fsync once and then complete the enables
+     * that were waiting for it. Without an open journal the records are
+     * only tracked in memory.
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        if (queue.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<Void>> written = new ArrayList<>();
+        try {
+            CRC32C crc = new CRC32C();
+            Pending pending;
+            while ((pending = queue.poll()) != null) {
+                byte[] payload = pending.payload;
+                if (channel != null) {
+                    crc.reset();
+                    crc.update(payload);
+                    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+                    record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+                    while (record.hasRemaining()) {
+                        channel.write(record);
+                    }
+                    records++;
+                }
+                track(payload);
+                if (pending.durable != null) {
+                    written.add(pending.durable);
+                }
+            }
+            if (channel != null) {
+                channel.force(false);
+                if (records > openSessions.size() + COMPACT_SLACK_RECORDS) {
+                    compact();
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.atSevere().log("Failed to write freecam session journal: " + e);
+        } finally {
+            // A failed write still releases the waiting enables; the failure is logged
+            for (CompletableFuture<Void> durable : written) {
+                durable.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Rewrite the journal down to the open sessions and reopen it. If the
+     * rewrite fails the old journal is still in place and is reopened, so
+     * later records are not lost; if it cannot be reopened the journal
+     * fails.
+     */
+    private void compact() {
+        try {
+            channel.close();
+            rewrite();
+        } catch (IOException e) {
+            LOGGER.atWarning().log("Failed to compact freecam session journal, keeping it as is: " + e);
+        }
+        channel = null;
+        try {
+            channel = open();
+        } catch (IOException e) {
+            fail("Failed to reopen freecam session journal after compaction", e);
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        FileChannel opened = FileChannel.open(journalFile, StandardOpenOption.WRITE);
+        opened.position(opened.size());
+        return opened;
+    }
+
+    /**
+     * Stop writing the journal for the rest of the run. Logged once, since
+     * nothing reopens it afterwards.
+     */
+    private void fail(String message, IOException e) {
+        if (failed) {
+            return;
+        }
+        failed = true;
+        LOGGER.atSevere().log(message + ", freecam sessions will not be recovered after a crash: " + e);
+        FreecamMetrics.getInstance().recordSessionJournalFailed();
+    }
+
+    /**
+     * Read all intact records, stopping at the first torn or corrupt one.
+     */
+    private void replay(Map<UUID, OpenSession> sessions) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(journalFile));
+        CRC32C crc = new CRC32C();
+        while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > MAX_PAYLOAD_BYTES || length > buffer.remaining()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            track(payload);
+            OpenSession session = decode(payload);
+            UUID playerId = readUuid(payload);
+            if (session != null) {
+                sessions.put(playerId, session);
+            } else {
+                sessions.remove(playerId);
+            }
+        }
+    }
+
+    /**
+     * Rewrite the journal with only the open sessions.
+     */
+    private void rewrite() throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel out = FileChannel.open(journalTempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (byte[] payload : openSessions.values()) {
+                crc.reset();
+                crc.update(payload);
+                ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+                record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            }
+            out.force(true);
+        }
+        Files.move(journalTempFile, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        records = openSessions.size();
+    }
+
+    private void track(byte[] payload) {
+        UUID playerId = readUuid(payload);
+        if (payload[0] != TYPE_DISABLE) {
+            openSessions.put(playerId, payload);
+        } else {
+            openSessions.remove(playerId);
+        }
+    }
+
+    private static UUID readUuid(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload, 1, 16);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static OpenSession decode(byte[] payload) {
+        byte type = payload[0];
+        if (type != TYPE_ENABLE && type != TYPE_ENABLE_ORDINAL) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        buffer.get();
+        UUID playerId = new UUID(buffer.getLong(), buffer.getLong());
+        byte[] world = new byte[buffer.getShort()];
+        buffer.get(world);
+        double x = buffer.getDouble();
+        double y = buffer.getDouble();
+        double z = buffer.getDouble();
+        float yaw = buffer.getFloat();
+        float pitch = buffer.getFloat();
+        byte mode = buffer.get();
+        GameMode previousGameMode = type == TYPE_ENABLE ? readGameMode(buffer, mode) : gameModeByOrdinal(mode);
+        return new OpenSession(playerId, new String(world, StandardCharsets.UTF_8), x, y, z, yaw, pitch, previousGameMode);
+    }
+
+    /**
+     * Read a game mode stored by name. A name this server does not know is
+     * treated as unknown, so the player keeps their current mode.
+     */
+    private static GameMode readGameMode(ByteBuffer buffer, byte length) {
+        if (length == NO_GAME_MODE) {
+            return null;
+        }
+        byte[] name = new byte[length];
+        buffer.get(name);
+        try {
+            return GameMode.valueOf(new String(name, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static GameMode gameModeByOrdinal(byte ordinal) {
+        GameMode[] modes = GameMode.values();
+        return ordinal >= 0 && ordinal < modes.length ? modes[ordinal] : null;
+    }
+
+    /**
+     * A journal record waiting to be written, and for enables the future to
+     * complete once it is on disk.
+     */
+    private static final class Pending {
+        private final byte[] payload;
+        private final CompletableFuture<Void> durable;
+
+        private Pending(byte[] payload, CompletableFuture<Void> durable) {
+            this.payload = payload;
+            this.durable = durable;
+        }
+    }
+
+    /**
+     * A freecam session that was still open when the journal was last written.
+     */
+    public static class OpenSession {
+        private final UUID playerId;
+        private final String worldName;
+        private final double originalX, originalY, originalZ;
+        private final float originalYaw, originalPitch;
+        private final GameMode previousGameMode;
+
+        public OpenSession(UUID playerId, String worldName, double x, double y, double z,
+                    float yaw, float pitch, GameMode previousGameMode) {
+            this.playerId = playerId;
+            this.worldName = worldName;
+            this.originalX = x;
+            this.originalY = y;
+            this.originalZ = z;
+            this.originalYaw = yaw;
+            this.originalPitch = pitch;
+            this.previousGameMode = previousGameMode;
+        }
+
+        public UUID getPlayerId() { return playerId; }
+        public String getWorldName() { return worldName; }
+        public double getOriginalX() { return originalX; }
+        public double getOriginalY() { return originalY; }
+        public double getOriginalZ() { return originalZ; }
+        public float getOriginalYaw() { return originalYaw; }
+        public float getOriginalPitch() { return originalPitch; }
+        public GameMode getPreviousGameMode() { return previousGameMode; }
+    }
+}
@@ -0,0 +1,84 @@
+package com.zottik.hytale.system;
+
+import java.util.Arrays;
+
+/**
+ * Set of chunk indices without boxing, for replanning prefetch paths every
+ * few ticks without allocating.
+ *
+ * Open addressing with linear probing over a power-of-two table, plus the
+ * members in insertion order for iteration. {@link Long#MIN_VALUE} marks an
+ * empty slot; it is the index of a chunk two billion chunks out, which no
+ * camera reaches. Not thread-safe.
+ */
+final class ChunkIndexSet {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] table = newTable(64);
+    private long[] members = new long[32];
+    private int size;
+
+    boolean add(long index) {
+        int slot = find(index);
+        if (table[slot] == index) {
+            return false;
+        }
+        if ((size + 1) * 2 > table.length) {
+            grow();
+            slot = find(index);
+        }
+        table[slot] = index;
+        if (size == members.length) {
+            members = Arrays.copyOf(members, size * 2);
+        }
+        members[size++] = index;
+        return true;
+    }
+
+    boolean contains(long index) {
+        return table[find(index)] == index;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The i-th member, in insertion order.
+     */
+    long get(int i) {
+        return members[i];
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(table, EMPTY);
+            size = 0;
+        }
+    }
+
+    // Slot holding the index, or the empty slot where it would go
+    private int find(long index) {
+        int mask = table.length - 1;
+        // Fibonacci hashing: the top bits of the product mix both coordinates
+        int slot = (int) ((index * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(table.length)));
+        while (table[slot] != EMPTY && table[slot] != index) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        table = newTable(table.length * 2);
+        for (int i = 0; i < size; i++) {
+            table[find(members[i])] = members[i];
+        }
+    }
+
+    private static long[] newTable(int capacity) {
+        long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+}
@@ -0,0 +1,79 @@
+package com.zottik.hytale.system;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.FreecamState;
+import com.zottik.hytale.FreecamWorldState;
+import com.zottik.hytale.command.FreecamCommand;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Applies queued freecam toggles on each world's own thread, a limited number
+ * per tick, so toggling a whole lobby is spread over several ticks instead of
+ * sending every camera packet and teleport in one.
+ */
+public class FreecamBatchToggleSystem extends TickingSystem<EntityStore> {
+
+    private final Map<World, Queue<PendingToggle>> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Queue a toggle for a player in the given world.
+     */
+    public void enqueue(World world, PlayerRef playerRef, boolean enable) {
+        queues.computeIfAbsent(world, w -> new ConcurrentLinkedQueue<>()).add(new PendingToggle(playerRef, enable));
+    }
+
+    /**
+     * Drop the queued toggles of a world that is being removed.
+     */
+    public void dropWorld(World world) {
+        queues.remove(world);
+    }
+
+    @Override
+    public void tick(float dt, int systemIndex, @Nonnull Store<EntityStore> store) {
+        World world = store.getExternalData().getWorld();
+        Queue<PendingToggle> queue = queues.get(world);
+        if (queue == null || queue.isEmpty()) {
+            return;
+        }
+
+        FreecamWorldState worldState = FreecamState.getInstance().getWorldState(world);
+        int budget = FreecamPlugin.getInstance().getFreecamConfig().getBatchTogglesPerTick();
+        PendingToggle toggle;
+        while (budget > 0 && (toggle = queue.poll()) != null) {
+            PlayerRef playerRef = toggle.playerRef;
+            Ref<EntityStore> entityRef = playerRef.getReference();
+            // Skip players that left or moved to another world since being queued
+            if (entityRef == null || !entityRef.isValid() || entityRef.getStore() != store) {
+                continue;
+            }
+            // Skip players already in the requested state, without spending budget
+            if (worldState.isFreecamEnabled(playerRef.getUuid()) == toggle.enable) {
+                continue;
+            }
+            FreecamCommand.setFreecam(playerRef, world, store, entityRef, toggle.enable);
+            budget--;
+        }
+    }
+
+    private static final class PendingToggle {
+        private final PlayerRef playerRef;
+        private final boolean enable;
+
+        private PendingToggle(PlayerRef playerRef, boolean enable) {
+            this.playerRef = playerRef;
+            this.enable = enable;
+        }
+    }
+}
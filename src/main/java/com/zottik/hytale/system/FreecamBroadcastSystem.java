@@ -0,0 +1,318 @@
+package com.zottik.hytale.system;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.protocol.ClientCameraView;
+import com.hypixel.hytale.protocol.ServerCameraSettings;
+import com.hypixel.hytale.protocol.packets.camera.SetServerCamera;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.command.FreecamCommand;
+import com.zottik.hytale.component.FreecamCamera;
+import com.zottik.hytale.component.FreecamComponent;
+import com.zottik.hytale.metrics.FreecamMetrics;
+
+import io.netty.channel.Channel;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mirrors a director's freecam camera to a group of viewers in the same
+ * world.
+ *
+ * Each world tick the director's camera is read once and, if it moved, one
+ * SetServerCamera is built and written to every viewer through their packet
+ * handler, so the whole group shares one packet per frame. Viewers whose
+ * connection is not writable are skipped for that update and caught up
+ * with the next one, so a slow viewer never queues a backlog of stale
+ * camera frames.
+ *
+ * The director's camera is read through {@link FreecamCamera}, so free
+ * flight is mirrored as well as following a player or playing a path.
+ */
+public class FreecamBroadcastSystem extends TickingSystem<EntityStore> {
+
+    private static final Message MSG_ENDED = Message.raw("The director stopped broadcasting.").color("gray");
+
+    // World -> director UUID -> group. Each inner map is only touched on its world's thread.
+    private final Map<World, Map<UUID, Group>> groups = new ConcurrentHashMap<>();
+
+    /**
+     * Start broadcasting a director's camera, leaving any group they were
+     * watching. Returns false if they already are. Must run on the world's
+     * thread.
+     */
+    public boolean startGroup(World world, PlayerRef director) {
+        leave(world, director.getUuid());
+        return groups.computeIfAbsent(world, w -> new HashMap<>())
+            .putIfAbsent(director.getUuid(), new Group(director)) == null;
+    }
+
+    /**
+     * Stop broadcasting a director's camera, handing every viewer back their
+     * own camera. Returns false if they were not broadcasting. Must run on
+     * the world's thread.
+     */
+    public boolean stopGroup(World world, UUID directorId) {
+        Map<UUID, Group> worldGroups = groups.get(world);
+        Group group = worldGroups != null ? worldGroups.remove(directorId) : null;
+        if (group == null) {
+            return false;
+        }
+        for (Viewer viewer : group.viewers) {
+            release(viewer.playerRef);
+            viewer.playerRef.sendMessage(MSG_ENDED);
+        }
+        return true;
+    }
+
+    /**
+     * Add a viewer to a director's group, leaving any group they watched
+     * before. Returns false if the director is not broadcasting, the viewer
+     * is a director themselves or the group is full. Must run on the world's
+     * thread.
+     */
+    public boolean join(World world, UUID directorId, PlayerRef viewer, int maxViewers) {
+        Map<UUID, Group> worldGroups = groups.get(world);
+        Group group = worldGroups != null ? worldGroups.get(directorId) : null;
+        if (group == null || worldGroups.containsKey(viewer.getUuid())) {
+            return false;
+        }
+        // Leaving first, so re-joining the same group does not count the viewer twice
+        if (group.viewers.size() - (group.contains(viewer.getUuid()) ? 1 : 0) >= maxViewers) {
+            return false;
+        }
+        leave(world, viewer.getUuid());
+        group.viewers.add(new Viewer(viewer));
+        group.anyBehind = true; // Send the new viewer the current camera
+        return true;
+    }
+
+    /**
+     * Remove a viewer from whichever group they watch, handing them back
+     * their own camera. Returns false if they were not watching. Must run on
+     * the world's thread.
+     */
+    public boolean leave(World world, UUID viewerId) {
+        Map<UUID, Group> worldGroups = groups.get(world);
+        if (worldGroups == null) {
+            return false;
+        }
+        for (Group group : worldGroups.values()) {
+            for (int i = 0; i < group.viewers.size(); i++) {
+                Viewer viewer = group.viewers.get(i);
+                if (viewer.playerRef.getUuid().equals(viewerId)) {
+                    group.remove(i);
+                    release(viewer.playerRef);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a player is a director in a world.
+     */
+    public boolean isDirector(World world, UUID playerId) {
+        Map<UUID, Group> worldGroups = groups.get(world);
+        return worldGroups != null && worldGroups.containsKey(playerId);
+    }
+
+    /**
+     * Check whether a player is watching a director in a world.
+     */
+    public boolean isViewer(World world, UUID playerId) {
+        Map<UUID, Group> worldGroups = groups.get(world);
+        if (worldGroups == null) {
+            return false;
+        }
+        for (Group group : worldGroups.values()) {
+            if (group.contains(playerId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drop the broadcast groups of a world that is being removed.
+     */
+    public void dropWorld(World world) {
+        groups.remove(world);
+    }
+
+    @Override
+    public void tick(float dt, int systemIndex, @Nonnull Store<EntityStore> store) {
+        World world = store.getExternalData().getWorld();
+        Map<UUID, Group> worldGroups = groups.get(world);
+        if (worldGroups == null || worldGroups.isEmpty()) {
+            return;
+        }
+
+        List<UUID> ended = null;
+        for (Group group : worldGroups.values()) {
+            Ref<EntityStore> directorRef = group.director.getReference();
+            FreecamComponent freecam = directorRef != null && directorRef.isValid()
+                ? store.getComponent(directorRef, FreecamComponent.getComponentType())
+                : null;
+            if (freecam == null) {
+                // Director left the world or freecam
+                if (ended == null) {
+                    ended = new ArrayList<>();
+                }
+                ended.add(group.director.getUuid());
+                continue;
+            }
+            broadcast(store, group, freecam);
+        }
+        if (ended != null) {
+            for (UUID directorId : ended) {
+                stopGroup(world, directorId);
+            }
+        }
+    }
+
+    /**
+     * Send the director's camera to every viewer that needs it.
+     */
+    private void broadcast(Store<EntityStore> store, Group group, FreecamComponent freecam) {
+        if (group.viewers.isEmpty()) {
+            return;
+        }
+
+        FreecamCamera camera = freecam.getCamera();
+        camera.resolve(store);
+        boolean moved = camera.getX() != group.lastX || camera.getY() != group.lastY || camera.getZ() != group.lastZ
+            || camera.getYaw() != group.lastYaw || camera.getPitch() != group.lastPitch;
+        if (!moved && !group.anyBehind) {
+            return;
+        }
+        group.lastX = camera.getX();
+        group.lastY = camera.getY();
+        group.lastZ = camera.getZ();
+        group.lastYaw = camera.getYaw();
+        group.lastPitch = camera.getPitch();
+
+        // Built once, on the first viewer that needs it, and shared by the whole group.
+        // It is never changed after it is handed to a packet handler.
+        SetServerCamera packet = null;
+        FreecamMetrics metrics = FreecamMetrics.getInstance();
+        boolean anyBehind = false;
+        for (int i = group.viewers.size() - 1; i >= 0; i--) {
+            Viewer viewer = group.viewers.get(i);
+            Ref<EntityStore> viewerRef = viewer.playerRef.getReference();
+            FreecamComponent viewerFreecam = viewerRef != null && viewerRef.isValid() && viewerRef.getStore() == store
+                ? store.getComponent(viewerRef, FreecamComponent.getComponentType())
+                : null;
+            if (viewerFreecam == null) {
+                // Viewer left the world or freecam
+                group.remove(i);
+                continue;
+            }
+            if (!moved && !viewer.behind) {
+                continue;
+            }
+            Channel channel = viewer.playerRef.getPacketHandler().getChannel();
+            if (!channel.isWritable()) {
+                // Slow connection: skip this frame rather than queue it
+                viewer.behind = true;
+                anyBehind = true;
+                metrics.recordBroadcastFrameSkipped();
+                continue;
+            }
+            if (packet == null) {
+                packet = buildPacket(group, freecam);
+            }
+            viewer.playerRef.getPacketHandler().writeNoCache(packet);
+            viewerFreecam.getCamera().drive(group.lastX, group.lastY, group.lastZ, group.lastYaw, group.lastPitch);
+            viewer.behind = false;
+            metrics.recordPacketWritten();
+        }
+        group.anyBehind = anyBehind;
+    }
+
+    /**
+     * Build the packet for the group's current camera, with the director's
+     * speed and show-player settings.
+     */
+    private static SetServerCamera buildPacket(Group group, FreecamComponent freecam) {
+        ServerCameraSettings settings = FreecamPlugin.getInstance().getCameraTemplates().create(
+            group.lastX, group.lastY, group.lastZ, group.lastYaw, group.lastPitch, 0.0f,
+            freecam.getSpeed(), freecam.isShowPlayer());
+        return new SetServerCamera(ClientCameraView.Custom, true, settings);
+    }
+
+    /**
+     * Give a viewer back a free camera at the last frame they were sent.
+     */
+    private static void release(PlayerRef viewer) {
+        Ref<EntityStore> viewerRef = viewer.getReference();
+        if (viewerRef == null || !viewerRef.isValid()) {
+            return;
+        }
+        FreecamComponent freecam = viewerRef.getStore().getComponent(viewerRef, FreecamComponent.getComponentType());
+        if (freecam == null) {
+            return;
+        }
+        FreecamCommand.releaseCamera(viewer, viewerRef.getStore(), freecam);
+    }
+
+    /**
+     * A director and the viewers mirroring their camera.
+     */
+    private static final class Group {
+        private final PlayerRef director;
+        private final List<Viewer> viewers = new ArrayList<>();
+
+        // Last camera sent, so an idle director costs nothing
+        private double lastX = Double.NaN, lastY, lastZ;
+        private float lastYaw, lastPitch;
+        private boolean anyBehind;
+
+        private Group(PlayerRef director) {
+            this.director = director;
+        }
+
+        private boolean contains(UUID viewerId) {
+            for (Viewer viewer : viewers) {
+                if (viewer.playerRef.getUuid().equals(viewerId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Swap-remove so removal is O(1).
+         */
+        private void remove(int index) {
+            int last = viewers.size() - 1;
+            viewers.set(index, viewers.get(last));
+            viewers.remove(last);
+        }
+    }
+
+    /**
+     * One viewer and whether they missed the latest frame.
+     */
+    private static final class Viewer {
+        private final PlayerRef playerRef;
+        private boolean behind = true;
+
+        private Viewer(PlayerRef playerRef) {
+            this.playerRef = playerRef;
+        }
+    }
+}
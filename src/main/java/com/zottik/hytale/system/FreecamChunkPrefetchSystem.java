@@ -0,0 +1,273 @@
+package com.zottik.hytale.system;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamConfig;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.component.FreecamCamera;
+import com.zottik.hytale.component.FreecamComponent;
+
+import javax.annotation.Nonnull;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prefetches chunks ahead of moving freecam cameras.
+ *
+ * Each freecam camera's velocity is estimated from its position every tick
+ * (see {@link FreecamCamera}): a freely flown camera moves with the player's
+ * body, and followed players, path playback and broadcasts move it too.
+ * When the camera enters a new chunk (or periodically) the chunks along its
+ * predicted path are added to the world's interest set, nearest first. Every
+ * tick a fixed number of the highest priority chunks that are not loaded yet
+ * are requested asynchronously. When the camera changes course or leaves
+ * freecam, its chunks are dropped from the interest set; the plugin never
+ * pins chunks, so the server unloads them as usual once nobody is near.
+ */
+public class FreecamChunkPrefetchSystem extends TickingSystem<EntityStore> {
+
+    private static final int CHUNK_SHIFT = 5; // 32-block chunks
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int REPLAN_INTERVAL_TICKS = 20;
+    private static final double VELOCITY_SMOOTHING = 0.3;
+    // Anything faster is a teleport, not camera movement
+    private static final double MAX_CAMERA_SPEED = 200.0;
+
+    // World -> prefetch state. Each entry is only touched on its world's thread.
+    private final Map<World, WorldInterest> worlds = new ConcurrentHashMap<>();
+
+    /**
+     * Start prefetching for a camera. Must run on the world's thread.
+     */
+    public void track(World world, Ref<EntityStore> entityRef) {
+        worlds.computeIfAbsent(world, w -> new WorldInterest()).cameras.put(entityRef, new Camera());
+    }
+
+    /**
+     * Stop prefetching for a camera and drop its interest. Must run on the world's thread.
+     */
+    public void untrack(World world, Ref<EntityStore> entityRef) {
+        WorldInterest interest = worlds.get(world);
+        if (interest != null) {
+            Camera camera = interest.cameras.remove(entityRef);
+            if (camera != null) {
+                interest.release(camera);
+            }
+        }
+    }
+
+    /**
+     * Drop the prefetch state of a world that is being removed.
+     */
+    public void dropWorld(World world) {
+        worlds.remove(world);
+    }
+
+    @Override
+    public void tick(float dt, int systemIndex, @Nonnull Store<EntityStore> store) {
+        World world = store.getExternalData().getWorld();
+        WorldInterest interest = worlds.get(world);
+        if (interest == null || (interest.cameras.isEmpty() && interest.queue.isEmpty())) {
+            return;
+        }
+        FreecamConfig config = FreecamPlugin.getInstance().getFreecamConfig();
+        int budget = config.getPrefetchChunksPerTick();
+        if (budget == 0) {
+            return;
+        }
+
+        Iterator<Map.Entry<Ref<EntityStore>, Camera>> iterator = interest.cameras.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Ref<EntityStore>, Camera> entry = iterator.next();
+            Ref<EntityStore> entityRef = entry.getKey();
+            FreecamComponent freecam = entityRef.isValid()
+                ? store.getComponent(entityRef, FreecamComponent.getComponentType())
+                : null;
+            if (freecam == null) {
+                interest.release(entry.getValue());
+                iterator.remove();
+                continue;
+            }
+            Camera camera = entry.getValue();
+            FreecamCamera position = freecam.getCamera();
+            position.resolve(store);
+            camera.sample(position.getX(), position.getZ(), dt);
+            if (camera.needsPlan()) {
+                plan(interest, camera, config);
+            }
+        }
+
+        // Request the most urgent chunks that are still wanted and not loaded
+        ChunkRequest request;
+        while (budget > 0 && (request = interest.queue.poll()) != null) {
+            long index = request.index;
+            if (!interest.refCounts.containsKey(index) || !interest.requested.add(index)) {
+                continue;
+            }
+            if (world.getChunkIfLoaded(index) != null) {
+                continue;
+            }
+            world.getChunkAsync(index);
+            budget--;
+        }
+    }
+
+    /**
+     * Replace a camera's interest with the chunks along its predicted path.
+     */
+    private static void plan(WorldInterest interest, Camera camera, FreecamConfig config) {
+        int maxDistance = config.getPrefetchMaxDistanceChunks();
+        int radius = config.getPrefetchRadiusChunks();
+        double speed = Math.sqrt(camera.vx * camera.vx + camera.vz * camera.vz);
+        double lookahead = speed * config.getPrefetchLookaheadMs() / 1000.0;
+        int steps = Math.min((int) Math.ceil(lookahead / CHUNK_SIZE), maxDistance);
+        double dirX = speed > 0 ? camera.vx / speed : 0;
+        double dirZ = speed > 0 ? camera.vz / speed : 0;
+
+        int chunkX = camera.chunkX;
+        int chunkZ = camera.chunkZ;
+        // Built into the camera's spare set, which then swaps with its current one
+        ChunkIndexSet wanted = camera.spare;
+        wanted.clear();
+        for (int step = 0; step <= steps; step++) {
+            int stepX = (int) Math.floor(camera.x + dirX * step * CHUNK_SIZE) >> CHUNK_SHIFT;
+            int stepZ = (int) Math.floor(camera.z + dirZ * step * CHUNK_SIZE) >> CHUNK_SHIFT;
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    int x = stepX + dx;
+                    int z = stepZ + dz;
+                    if (Math.max(Math.abs(x - chunkX), Math.abs(z - chunkZ)) > maxDistance) {
+                        continue;
+                    }
+                    long index = ChunkUtil.indexChunk(x, z);
+                    if (wanted.add(index) && !camera.chunks.contains(index)) {
+                        interest.acquire(index, step);
+                    }
+                }
+            }
+        }
+        ChunkIndexSet previous = camera.chunks;
+        for (int i = 0; i < previous.size(); i++) {
+            long index = previous.get(i);
+            if (!wanted.contains(index)) {
+                interest.release(index);
+            }
+        }
+        camera.spare = previous;
+        camera.chunks = wanted;
+        camera.planned();
+    }
+
+    /**
+     * Position, velocity and current interest of one freecam camera.
+     */
+    private static final class Camera {
+        private double x, z;
+        private double vx, vz;
+        private boolean sampled;
+        private int chunkX, chunkZ;
+        private int plannedChunkX = Integer.MIN_VALUE, plannedChunkZ = Integer.MIN_VALUE;
+        private int ticksSincePlan;
+        private ChunkIndexSet chunks = new ChunkIndexSet();
+        private ChunkIndexSet spare = new ChunkIndexSet();
+
+        private void sample(double newX, double newZ, float dt) {
+            if (sampled && dt > 0) {
+                double sampleVx = (newX - x) / dt;
+                double sampleVz = (newZ - z) / dt;
+                if (Math.abs(sampleVx) > MAX_CAMERA_SPEED || Math.abs(sampleVz) > MAX_CAMERA_SPEED) {
+                    vx = 0;
+                    vz = 0;
+                } else {
+                    vx += (sampleVx - vx) * VELOCITY_SMOOTHING;
+                    vz += (sampleVz - vz) * VELOCITY_SMOOTHING;
+                }
+            }
+            x = newX;
+            z = newZ;
+            sampled = true;
+            chunkX = (int) Math.floor(newX) >> CHUNK_SHIFT;
+            chunkZ = (int) Math.floor(newZ) >> CHUNK_SHIFT;
+            ticksSincePlan++;
+        }
+
+        private boolean needsPlan() {
+            return chunkX != plannedChunkX || chunkZ != plannedChunkZ || ticksSincePlan >= REPLAN_INTERVAL_TICKS;
+        }
+
+        private void planned() {
+            plannedChunkX = chunkX;
+            plannedChunkZ = chunkZ;
+            ticksSincePlan = 0;
+        }
+    }
+
+    /**
+     * Chunks wanted by the freecam cameras of one world.
+     */
+    private static final class WorldInterest {
+        private final Map<Ref<EntityStore>, Camera> cameras = new HashMap<>();
+        // Chunk index -> number of cameras that want it
+        private final Map<Long, Integer> refCounts = new HashMap<>();
+        // Chunks already requested while they stayed wanted
+        private final Set<Long> requested = new HashSet<>();
+        private final PriorityQueue<ChunkRequest> queue = new PriorityQueue<>(ChunkRequest.ORDER);
+        private long sequence;
+
+        private void acquire(long index, int priority) {
+            if (refCounts.merge(index, 1, Integer::sum) == 1) {
+                queue.add(new ChunkRequest(index, priority, sequence++));
+            }
+        }
+
+        private void release(long index) {
+            Integer count = refCounts.get(index);
+            if (count == null) {
+                return;
+            }
+            if (count <= 1) {
+                refCounts.remove(index);
+                requested.remove(index);
+            } else {
+                refCounts.put(index, count - 1);
+            }
+        }
+
+        private void release(Camera camera) {
+            ChunkIndexSet chunks = camera.chunks;
+            for (int i = 0; i < chunks.size(); i++) {
+                release(chunks.get(i));
+            }
+            chunks.clear();
+        }
+    }
+
+    /**
+     * A queued chunk load, ordered by distance along the path, then age.
+     */
+    private static final class ChunkRequest {
+        private static final Comparator<ChunkRequest> ORDER = Comparator
+            .comparingInt((ChunkRequest request) -> request.priority)
+            .thenComparingLong(request -> request.sequence);
+
+        private final long index;
+        private final int priority;
+        private final long sequence;
+
+        private ChunkRequest(long index, int priority, long sequence) {
+            this.index = index;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
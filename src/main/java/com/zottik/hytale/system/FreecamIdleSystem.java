@@ -0,0 +1,304 @@
+package com.zottik.hytale.system;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.event.events.player.PlayerMouseMotionEvent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.command.FreecamCommand;
+import com.zottik.hytale.component.FreecamCamera;
+import com.zottik.hytale.component.FreecamComponent;
+import com.zottik.hytale.metrics.FreecamMetrics;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ends freecam sessions whose player has given no input for the configured
+ * idle time, through the normal disable path, so an AFK player's body is
+ * restored and the session stops holding state.
+ *
+ * Each world keeps its sessions in one hashed timing wheel, advanced from
+ * the world tick in one-second steps. A session is due for a check every
+ * few seconds; the check compares the camera with where it was at the last
+ * check and either re-arms the session or ends it. The tick only touches
+ * the sessions that are due, and adding, re-arming and removing a session
+ * are all O(1).
+ *
+ * Input is anything the client sends: flying moves the camera through the
+ * body it rides on ({@link FreecamCamera}), and looking around arrives as
+ * mouse motion, which the freecam settings ask the client to send. Mouse
+ * motion marks the session active straight away, without touching the
+ * wheel.
+ */
+public class FreecamIdleSystem extends TickingSystem<EntityStore> {
+
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SLOTS = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SLOTS - 1;
+
+    // Seconds between activity checks of one session
+    private static final int CHECK_INTERVAL_SECONDS = 5;
+    // Camera movement smaller than this, in blocks or radians, is not input
+    private static final double ACTIVITY_EPSILON = 1.0e-3;
+
+    private static final Message MSG_IDLE = Message.raw("Freecam disabled after being idle. Camera returned to player.").color("red");
+
+    // World -> timing wheel. Each wheel is only touched on its world's thread.
+    private final Map<World, Wheel> wheels = new ConcurrentHashMap<>();
+
+    /**
+     * Start tracking a player's idle time. Must run on the world's thread.
+     */
+    public void track(World world, Ref<EntityStore> entityRef) {
+        wheels.computeIfAbsent(world, w -> new Wheel()).add(entityRef);
+    }
+
+    /**
+     * Stop tracking a player. Must run on the world's thread.
+     */
+    public void untrack(World world, Ref<EntityStore> entityRef) {
+        Wheel wheel = wheels.get(world);
+        if (wheel != null) {
+            wheel.remove(entityRef);
+        }
+    }
+
+    /**
+     * Count mouse motion of a freecam player as input. Dispatched on the
+     * player's world thread.
+     */
+    public void onMouseMotion(@Nonnull PlayerMouseMotionEvent event) {
+        Ref<EntityStore> entityRef = event.getPlayerRef();
+        if (entityRef == null || !entityRef.isValid()) {
+            return;
+        }
+        Wheel wheel = wheels.get(entityRef.getStore().getExternalData().getWorld());
+        Entry entry = wheel != null ? wheel.entries.get(entityRef) : null;
+        if (entry != null) {
+            // Its next check sees the fresh activity and re-arms it for a full timeout
+            entry.lastActiveSecond = wheel.now;
+        }
+    }
+
+    /**
+     * Stop tracking the players of a world that is being removed.
+     */
+    public void dropWorld(World world) {
+        wheels.remove(world);
+    }
+
+    @Override
+    public void tick(float dt, int systemIndex, @Nonnull Store<EntityStore> store) {
+        World world = store.getExternalData().getWorld();
+        Wheel wheel = wheels.get(world);
+        if (wheel == null || wheel.entries.isEmpty()) {
+            return;
+        }
+        int timeoutSeconds = FreecamPlugin.getInstance().getFreecamConfig().getIdleTimeoutSeconds();
+        if (timeoutSeconds <= 0) {
+            return; // Disabled; the wheel resumes where it was if it is turned back on
+        }
+
+        wheel.pendingSeconds += dt;
+        while (wheel.pendingSeconds >= 1.0f) {
+            wheel.pendingSeconds -= 1.0f;
+            Entry entry = wheel.advance();
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.next = null;
+                check(world, store, wheel, entry, timeoutSeconds);
+                entry = next;
+            }
+        }
+    }
+
+    /**
+     * Check a due session, ending it if it has been idle long enough and
+     * re-arming it otherwise.
+     */
+    private static void check(World world, Store<EntityStore> store, Wheel wheel, Entry entry, int timeoutSeconds) {
+        if (entry.removed) {
+            return;
+        }
+        Ref<EntityStore> entityRef = entry.ref;
+        FreecamComponent freecam = entityRef.isValid()
+            ? store.getComponent(entityRef, FreecamComponent.getComponentType())
+            : null;
+        if (freecam == null) {
+            wheel.remove(entityRef); // Player left or is no longer in freecam
+            return;
+        }
+        PlayerRef playerRef = store.getComponent(entityRef, PlayerRef.getComponentType());
+        if (playerRef == null) {
+            wheel.remove(entityRef);
+            return;
+        }
+
+        FreecamCamera camera = freecam.getCamera();
+        camera.resolve(store);
+        if (entry.sample(camera) || isWatching(world, playerRef.getUuid())) {
+            entry.lastActiveSecond = wheel.now;
+        }
+        long idleSeconds = wheel.now - entry.lastActiveSecond;
+        if (idleSeconds >= timeoutSeconds) {
+            wheel.remove(entityRef);
+            FreecamCommand.setFreecam(playerRef, world, store, entityRef, false);
+            playerRef.sendMessage(MSG_IDLE);
+            FreecamMetrics.getInstance().recordIdleExit();
+            return;
+        }
+        wheel.schedule(entry, (int) Math.min(CHECK_INTERVAL_SECONDS, timeoutSeconds - idleSeconds));
+    }
+
+    /**
+     * Path playback, following and watching a director move the camera
+     * without input, so they count as activity.
+     */
+    private static boolean isWatching(World world, UUID playerId) {
+        FreecamPlugin plugin = FreecamPlugin.getInstance();
+        return plugin.getPathPlayback().isPlaying(playerId)
+            || plugin.getFollowIndex().getTarget(playerId) != null
+            || plugin.getBroadcastSystem().isViewer(world, playerId);
+    }
+
+    /**
+     * Hashed timing wheel of one world's sessions, in one-second steps.
+     * Entries further out than one revolution wait out extra rounds in
+     * their slot.
+     */
+    private static final class Wheel {
+        private final Entry[] slots = new Entry[WHEEL_SLOTS];
+        private final Map<Ref<EntityStore>, Entry> entries = new HashMap<>();
+        private long now;
+        private float pendingSeconds;
+
+        private void add(Ref<EntityStore> entityRef) {
+            if (entries.containsKey(entityRef)) {
+                return;
+            }
+            Entry entry = new Entry(entityRef, now);
+            entries.put(entityRef, entry);
+            schedule(entry, CHECK_INTERVAL_SECONDS);
+        }
+
+        private void remove(Ref<EntityStore> entityRef) {
+            Entry entry = entries.remove(entityRef);
+            if (entry == null) {
+                return;
+            }
+            entry.removed = true;
+            if (entry.slot >= 0) {
+                unlink(entry);
+            }
+        }
+
+        /**
+         * Schedule an entry to be due in delaySeconds (at least one).
+         */
+        private void schedule(Entry entry, int delaySeconds) {
+            int delay = Math.max(1, delaySeconds);
+            entry.rounds = (delay - 1) >>> WHEEL_BITS;
+            link(entry, (int) ((now + delay) & WHEEL_MASK));
+        }
+
+        /**
+         * Move the wheel on by one second and return the entries that are
+         * now due, chained through {@link Entry#next}.
+         */
+        private Entry advance() {
+            now++;
+            int index = (int) (now & WHEEL_MASK);
+            Entry entry = slots[index];
+            slots[index] = null;
+            Entry due = null;
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.prev = null;
+                entry.next = null;
+                entry.slot = -1;
+                if (entry.rounds > 0) {
+                    entry.rounds--;
+                    link(entry, index);
+                } else {
+                    entry.next = due;
+                    due = entry;
+                }
+                entry = next;
+            }
+            return due;
+        }
+
+        private void link(Entry entry, int index) {
+            Entry head = slots[index];
+            entry.slot = index;
+            entry.prev = null;
+            entry.next = head;
+            if (head != null) {
+                head.prev = entry;
+            }
+            slots[index] = entry;
+        }
+
+        private void unlink(Entry entry) {
+            if (entry.prev != null) {
+                entry.prev.next = entry.next;
+            } else {
+                slots[entry.slot] = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.slot = -1;
+        }
+    }
+
+    /**
+     * One tracked session: its place in the wheel and the camera as of the
+     * last check.
+     */
+    private static final class Entry {
+        private final Ref<EntityStore> ref;
+        private Entry prev, next;
+        private int slot = -1;
+        private int rounds;
+        private boolean removed;
+
+        private long lastActiveSecond;
+        private double x = Double.NaN, y, z;
+        private float yaw, pitch;
+
+        private Entry(Ref<EntityStore> ref, long now) {
+            this.ref = ref;
+            this.lastActiveSecond = now;
+        }
+
+        /**
+         * Record the current camera and return whether it moved or turned
+         * since the last check.
+         */
+        private boolean sample(FreecamCamera camera) {
+            boolean moved = Double.isNaN(x)
+                || Math.abs(camera.getX() - x) > ACTIVITY_EPSILON
+                || Math.abs(camera.getY() - y) > ACTIVITY_EPSILON
+                || Math.abs(camera.getZ() - z) > ACTIVITY_EPSILON
+                || Math.abs(camera.getYaw() - yaw) > ACTIVITY_EPSILON
+                || Math.abs(camera.getPitch() - pitch) > ACTIVITY_EPSILON;
+            x = camera.getX();
+            y = camera.getY();
+            z = camera.getZ();
+            yaw = camera.getYaw();
+            pitch = camera.getPitch();
+            return moved;
+        }
+    }
+}
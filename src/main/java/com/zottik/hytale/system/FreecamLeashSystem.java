@@ -0,0 +1,174 @@
+package com.zottik.hytale.system;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.math.vector.Transform;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.FreecamConfig;
+import com.zottik.hytale.FreecamPlugin;
+import com.zottik.hytale.command.FreecamCommand;
+import com.zottik.hytale.component.FreecamCamera;
+import com.zottik.hytale.component.FreecamComponent;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps freecam cameras within range of their saved origin and inside the
+ * configured world bounds. Cameras that stray are snapped back with a
+ * SetServerCamera, and whatever was moving them (a follow, a path playback
+ * or a broadcast) lets go.
+ *
+ * The camera is measured where the server knows it to be, see
+ * {@link FreecamCamera}. A free camera moves with the player's body, so
+ * the body is moved back with it; otherwise the client would carry the
+ * camera straight back out.
+ *
+ * Each world keeps a rotation of its freecam players and checks a fixed
+ * number of them per tick, round-robin, so the per-tick cost stays flat no
+ * matter how many players are in freecam.
+ */
+public class FreecamLeashSystem extends TickingSystem<EntityStore> {
+
+    // World -> players to check. Each rotation is only touched on its world's thread.
+    private final Map<World, Rotation> rotations = new ConcurrentHashMap<>();
+
+    /**
+     * Start checking a player. Must run on the world's thread.
+     */
+    public void track(World world, Ref<EntityStore> entityRef) {
+        rotations.computeIfAbsent(world, w -> new Rotation()).refs.add(entityRef);
+    }
+
+    /**
+     * Stop checking a player. Must run on the world's thread.
+     */
+    public void untrack(World world, Ref<EntityStore> entityRef) {
+        Rotation rotation = rotations.get(world);
+        if (rotation != null) {
+            rotation.remove(rotation.refs.indexOf(entityRef));
+        }
+    }
+
+    /**
+     * Stop checking the players of a world that is being removed.
+     */
+    public void dropWorld(World world) {
+        rotations.remove(world);
+    }
+
+    @Override
+    public void tick(float dt, int systemIndex, @Nonnull Store<EntityStore> store) {
+        World world = store.getExternalData().getWorld();
+        Rotation rotation = rotations.get(world);
+        if (rotation == null || rotation.refs.isEmpty()) {
+            return;
+        }
+
+        FreecamConfig config = FreecamPlugin.getInstance().getFreecamConfig();
+        double radius = config.getLeashRadius();
+        FreecamConfig.Bounds bounds = config.getWorldBounds(world.getName());
+        if (radius <= 0 && bounds == null) {
+            return;
+        }
+
+        int checks = Math.min(config.getLeashChecksPerTick(), rotation.refs.size());
+        for (int i = 0; i < checks && !rotation.refs.isEmpty(); i++) {
+            if (rotation.cursor >= rotation.refs.size()) {
+                rotation.cursor = 0;
+            }
+            Ref<EntityStore> entityRef = rotation.refs.get(rotation.cursor);
+            if (!entityRef.isValid() || !check(world, store, entityRef, radius, bounds)) {
+                // Player left or is no longer in freecam
+                rotation.remove(rotation.cursor);
+                continue;
+            }
+            rotation.cursor++;
+        }
+    }
+
+    /**
+     * Check one player's camera, snapping it back if it is out of range.
+     * Returns false if the player is no longer in freecam.
+     */
+    private boolean check(World world, Store<EntityStore> store, Ref<EntityStore> entityRef,
+                          double radius, FreecamConfig.Bounds bounds) {
+        FreecamComponent freecam = store.getComponent(entityRef, FreecamComponent.getComponentType());
+        PlayerRef playerRef = store.getComponent(entityRef, PlayerRef.getComponentType());
+        if (freecam == null || playerRef == null) {
+            return false;
+        }
+
+        FreecamCamera camera = freecam.getCamera();
+        camera.resolve(store);
+        double x = camera.getX();
+        double y = camera.getY();
+        double z = camera.getZ();
+
+        if (radius > 0) {
+            double dx = x - freecam.getOriginalX();
+            double dy = y - freecam.getOriginalY();
+            double dz = z - freecam.getOriginalZ();
+            double distanceSquared = dx * dx + dy * dy + dz * dz;
+            if (distanceSquared > radius * radius) {
+                double scale = radius / Math.sqrt(distanceSquared);
+                x = freecam.getOriginalX() + dx * scale;
+                y = freecam.getOriginalY() + dy * scale;
+                z = freecam.getOriginalZ() + dz * scale;
+            }
+        }
+        if (bounds != null) {
+            x = bounds.clampX(x);
+            y = bounds.clampY(y);
+            z = bounds.clampZ(z);
+        }
+
+        if (x != camera.getX() || y != camera.getY() || z != camera.getZ()) {
+            if (camera.isFree()) {
+                // Flown out: move the body so the camera riding on it lands on the edge
+                Transform transform = new Transform();
+                transform.getPosition().x = x - camera.getOffsetX();
+                transform.getPosition().y = y - camera.getOffsetY();
+                transform.getPosition().z = z - camera.getOffsetZ();
+                playerRef.updatePosition(world, transform, new Vector3f(camera.getYaw(), camera.getPitch(), 0.0f));
+            } else {
+                // Stop whatever carried the camera out
+                UUID playerId = playerRef.getUuid();
+                FreecamPlugin plugin = FreecamPlugin.getInstance();
+                plugin.getPathPlayback().stop(playerId);
+                plugin.getFollowIndex().unfollow(playerId);
+                plugin.getBroadcastSystem().leave(world, playerId);
+            }
+            FreecamCommand.placeCamera(playerRef, freecam, x, y, z, camera.getYaw(), camera.getPitch());
+        }
+        return true;
+    }
+
+    /**
+     * Freecam players of one world and the position of the next one to check.
+     */
+    private static final class Rotation {
+        private final List<Ref<EntityStore>> refs = new ArrayList<>();
+        private int cursor;
+
+        /**
+         * Swap-remove so removal is O(1); the swapped-in player is checked next.
+         */
+        private void remove(int index) {
+            if (index < 0) {
+                return;
+            }
+            int last = refs.size() - 1;
+            refs.set(index, refs.get(last));
+            refs.remove(last);
+        }
+    }
+}
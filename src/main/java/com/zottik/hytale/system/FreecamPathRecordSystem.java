@@ -0,0 +1,80 @@
+package com.zottik.hytale.system;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.zottik.hytale.component.FreecamCamera;
+import com.zottik.hytale.component.FreecamComponent;
+import com.zottik.hytale.path.CameraPathRecorder;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the camera of players running /freecam record, one keyframe per
+ * world tick, into each player's fixed-size recorder.
+ *
+ * The camera is read through {@link FreecamCamera}, so free flight is
+ * recorded as well as stretches spent following a player or watching a
+ * broadcast.
+ */
+public class FreecamPathRecordSystem extends TickingSystem<EntityStore> {
+
+    // World -> recording players. Each inner map is only touched on its world's thread.
+    private final Map<World, Map<Ref<EntityStore>, CameraPathRecorder>> recordings = new ConcurrentHashMap<>();
+
+    /**
+     * Start recording a player's camera. Returns false if they are already
+     * recording. Must run on the world's thread.
+     */
+    public boolean start(World world, Ref<EntityStore> entityRef, int capacity) {
+        return recordings.computeIfAbsent(world, w -> new HashMap<>())
+            .putIfAbsent(entityRef, new CameraPathRecorder(capacity)) == null;
+    }
+
+    /**
+     * Stop recording a player's camera, returning what was recorded or null
+     * if they were not recording. Must run on the world's thread.
+     */
+    public CameraPathRecorder stop(World world, Ref<EntityStore> entityRef) {
+        Map<Ref<EntityStore>, CameraPathRecorder> recorders = recordings.get(world);
+        return recorders != null ? recorders.remove(entityRef) : null;
+    }
+
+    /**
+     * Drop the recordings of a world that is being removed.
+     */
+    public void dropWorld(World world) {
+        recordings.remove(world);
+    }
+
+    @Override
+    public void tick(float dt, int systemIndex, @Nonnull Store<EntityStore> store) {
+        Map<Ref<EntityStore>, CameraPathRecorder> recorders = recordings.get(store.getExternalData().getWorld());
+        if (recorders == null || recorders.isEmpty()) {
+            return;
+        }
+
+        Iterator<Map.Entry<Ref<EntityStore>, CameraPathRecorder>> iterator = recorders.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Ref<EntityStore>, CameraPathRecorder> entry = iterator.next();
+            Ref<EntityStore> entityRef = entry.getKey();
+            FreecamComponent freecam = entityRef.isValid()
+                ? store.getComponent(entityRef, FreecamComponent.getComponentType())
+                : null;
+            if (freecam == null) {
+                // Player left or is no longer in freecam
+                iterator.remove();
+                continue;
+            }
+            FreecamCamera camera = freecam.getCamera();
+            camera.resolve(store);
+            entry.getValue().add(dt, camera.getX(), camera.getY(), camera.getZ(), camera.getYaw(), camera.getPitch());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hypixel.hytale.component;
+
+/**
+ * Stand-in for the server's archetype chunk, holding a single entity.
+ */
+public class ArchetypeChunk<ECS_TYPE> {
+
+    private final Store<ECS_TYPE> store;
+    private final Ref<ECS_TYPE> ref;
+
+    public ArchetypeChunk(Store<ECS_TYPE> store, Ref<ECS_TYPE> ref) {
+        this.store = store;
+        this.ref = ref;
+    }
+
+    public Ref<ECS_TYPE> getReferenceTo(int index) {
+        return ref;
+    }
+
+    public <T extends Component<ECS_TYPE>> T getComponent(int index, ComponentType<ECS_TYPE, T> componentType) {
+        return store.getComponent(ref, componentType);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hypixel.hytale.component;
+
+/**
+ * Stand-in for the server's deferred store command buffer.
+ */
+public class CommandBuffer<ECS_TYPE> {
+}
@@ -0,0 +1,8 @@
+package com.hypixel.hytale.component;
+
+/**
+ * Stand-in for the server's ECS component.
+ */
+public interface Component<ECS_TYPE> extends Cloneable {
+    Component<ECS_TYPE> clone();
+}
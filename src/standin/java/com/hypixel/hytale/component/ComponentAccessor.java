@@ -0,0 +1,15 @@
+package com.hypixel.hytale.component;
+
+/**
+ * Stand-in for the server's component access interface.
+ */
+public interface ComponentAccessor<ECS_TYPE> {
+
+    <T extends Component<ECS_TYPE>> T getComponent(Ref<ECS_TYPE> ref, ComponentType<ECS_TYPE, T> componentType);
+
+    <T extends Component<ECS_TYPE>> void addComponent(Ref<ECS_TYPE> ref, ComponentType<ECS_TYPE, T> componentType, T component);
+
+    <T extends Component<ECS_TYPE>> void removeComponent(Ref<ECS_TYPE> ref, ComponentType<ECS_TYPE, T> componentType);
+
+    ECS_TYPE getExternalData();
+}
@@ -0,0 +1,28 @@
+package com.hypixel.hytale.component;
+
+import com.hypixel.hytale.component.system.ISystem;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Stand-in for the server's component and system registry. Keeps the
+ * registered systems so stand-in stores can dispatch events to them.
+ */
+public class ComponentRegistry<ECS_TYPE> {
+
+    private final List<ISystem<ECS_TYPE>> systems = new CopyOnWriteArrayList<>();
+
+    public <T extends Component<ECS_TYPE>> ComponentType<ECS_TYPE, T> registerComponent(Class<T> componentClass, Supplier<T> supplier) {
+        return new ComponentType<>();
+    }
+
+    public void registerSystem(ISystem<ECS_TYPE> system) {
+        systems.add(system);
+    }
+
+    public List<ISystem<ECS_TYPE>> getSystems() {
+        return systems;
+    }
+}
@@ -0,0 +1,15 @@
+package com.hypixel.hytale.component;
+
+import com.hypixel.hytale.component.query.Query;
+
+/**
+ * Stand-in for the server's component type, which also queries for entities
+ * that have the component.
+ */
+public class ComponentType<ECS_TYPE, T extends Component<ECS_TYPE>> implements Query<ECS_TYPE> {
+
+    @Override
+    public boolean test(Store<ECS_TYPE> store, Ref<ECS_TYPE> ref) {
+        return store.getComponent(ref, this) != null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.hypixel.hytale.component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stand-in for the server's holder of an entity's components outside a store.
+ */
+public class Holder<ECS_TYPE> {
+
+    private final Map<ComponentType<ECS_TYPE, ?>, Component<ECS_TYPE>> components = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T extends Component<ECS_TYPE>> T getComponent(ComponentType<ECS_TYPE, T> componentType) {
+        return (T) components.get(componentType);
+    }
+
+    public <T extends Component<ECS_TYPE>> void addComponent(ComponentType<ECS_TYPE, T> componentType, T component) {
+        components.put(componentType, component);
+    }
+
+    public <T extends Component<ECS_TYPE>> void removeComponent(ComponentType<ECS_TYPE, T> componentType) {
+        components.remove(componentType);
+    }
+}
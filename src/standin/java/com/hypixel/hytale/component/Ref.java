@@ -0,0 +1,26 @@
+package com.hypixel.hytale.component;
+
+/**
+ * Stand-in for the server's entity reference.
+ */
+public class Ref<ECS_TYPE> {
+
+    private final Store<ECS_TYPE> store;
+    private volatile boolean valid = true;
+
+    public Ref(Store<ECS_TYPE> store) {
+        this.store = store;
+    }
+
+    public Store<ECS_TYPE> getStore() {
+        return store;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public void invalidate() {
+        valid = false;
+    }
+}
@@ -0,0 +1,71 @@
+package com.hypixel.hytale.component;
+
+import com.hypixel.hytale.component.system.EcsEvent;
+import com.hypixel.hytale.component.system.EntityEventSystem;
+import com.hypixel.hytale.component.system.ISystem;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stand-in for the server's entity store: components in a map per entity,
+ * and entity events dispatched to the matching event systems of a registry.
+ * Like the real store it is only used from its world's thread.
+ */
+public class Store<ECS_TYPE> implements ComponentAccessor<ECS_TYPE> {
+
+    private final ECS_TYPE externalData;
+    private final ComponentRegistry<ECS_TYPE> registry;
+    private final Map<Ref<ECS_TYPE>, Map<ComponentType<ECS_TYPE, ?>, Component<ECS_TYPE>>> entities = new HashMap<>();
+    private final CommandBuffer<ECS_TYPE> buffer = new CommandBuffer<>();
+
+    public Store(ECS_TYPE externalData, ComponentRegistry<ECS_TYPE> registry) {
+        this.externalData = externalData;
+        this.registry = registry;
+    }
+
+    public Ref<ECS_TYPE> addEntity() {
+        Ref<ECS_TYPE> ref = new Ref<>(this);
+        entities.put(ref, new HashMap<>());
+        return ref;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Component<ECS_TYPE>> T getComponent(Ref<ECS_TYPE> ref, ComponentType<ECS_TYPE, T> componentType) {
+        Map<ComponentType<ECS_TYPE, ?>, Component<ECS_TYPE>> components = entities.get(ref);
+        return components != null ? (T) components.get(componentType) : null;
+    }
+
+    @Override
+    public <T extends Component<ECS_TYPE>> void addComponent(Ref<ECS_TYPE> ref, ComponentType<ECS_TYPE, T> componentType, T component) {
+        entities.get(ref).put(componentType, component);
+    }
+
+    @Override
+    public <T extends Component<ECS_TYPE>> void removeComponent(Ref<ECS_TYPE> ref, ComponentType<ECS_TYPE, T> componentType) {
+        entities.get(ref).remove(componentType);
+    }
+
+    @Override
+    public ECS_TYPE getExternalData() {
+        return externalData;
+    }
+
+    /**
+     * Dispatch an entity event to every registered event system for its
+     * class whose query matches the entity.
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends EcsEvent> void invoke(Ref<ECS_TYPE> ref, E event) {
+        for (ISystem<ECS_TYPE> system : registry.getSystems()) {
+            if (system instanceof EntityEventSystem<?, ?> eventSystem
+                    && eventSystem.getEventType() == event.getClass()) {
+                EntityEventSystem<ECS_TYPE, E> handler = (EntityEventSystem<ECS_TYPE, E>) eventSystem;
+                if (handler.getQuery().test(this, ref)) {
+                    handler.handle(0, new ArchetypeChunk<>(this, ref), this, buffer, event);
+                }
+            }
+        }
+    }
+}
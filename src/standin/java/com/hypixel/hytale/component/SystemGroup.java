@@ -0,0 +1,7 @@
+package com.hypixel.hytale.component;
+
+/**
+ * Stand-in for the server's ordered group of ECS systems.
+ */
+public class SystemGroup<ECS_TYPE> {
+}
@@ -0,0 +1,17 @@
+package com.hypixel.hytale.component.dependency;
+
+/**
+ * Stand-in for the server's system ordering dependency.
+ */
+public abstract class Dependency<ECS_TYPE> {
+
+    private final Order order;
+
+    protected Dependency(Order order) {
+        this.order = order;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,9 @@
+package com.hypixel.hytale.component.dependency;
+
+/**
+ * Stand-in for the server's system ordering.
+ */
+public enum Order {
+    BEFORE,
+    AFTER
+}
@@ -0,0 +1,18 @@
+package com.hypixel.hytale.component.dependency;
+
+/**
+ * Stand-in for the server's dependency on another system.
+ */
+public class SystemDependency<ECS_TYPE, T> extends Dependency<ECS_TYPE> {
+
+    private final Class<T> systemClass;
+
+    public SystemDependency(Order order, Class<T> systemClass) {
+        super(order);
+        this.systemClass = systemClass;
+    }
+
+    public Class<T> getSystemClass() {
+        return systemClass;
+    }
+}
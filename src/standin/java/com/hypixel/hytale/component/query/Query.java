@@ -0,0 +1,28 @@
+package com.hypixel.hytale.component.query;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+
+/**
+ * Stand-in for the server's archetype query, matched per entity.
+ */
+public interface Query<ECS_TYPE> {
+
+    boolean test(Store<ECS_TYPE> store, Ref<ECS_TYPE> ref);
+
+    static <ECS_TYPE> Query<ECS_TYPE> any() {
+        return (store, ref) -> true;
+    }
+
+    @SafeVarargs
+    static <ECS_TYPE> Query<ECS_TYPE> and(Query<ECS_TYPE>... queries) {
+        return (store, ref) -> {
+            for (Query<ECS_TYPE> query : queries) {
+                if (!query.test(store, ref)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+}
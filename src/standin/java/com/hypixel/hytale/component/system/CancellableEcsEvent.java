@@ -0,0 +1,17 @@
+package com.hypixel.hytale.component.system;
+
+/**
+ * Stand-in for the server's cancellable ECS event.
+ */
+public abstract class CancellableEcsEvent extends EcsEvent {
+
+    private boolean cancelled;
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+}
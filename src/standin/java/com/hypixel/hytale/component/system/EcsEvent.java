@@ -0,0 +1,7 @@
+package com.hypixel.hytale.component.system;
+
+/**
+ * Stand-in for the server's ECS event.
+ */
+public abstract class EcsEvent {
+}
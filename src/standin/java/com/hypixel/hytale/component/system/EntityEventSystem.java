@@ -0,0 +1,27 @@
+package com.hypixel.hytale.component.system;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+
+/**
+ * Stand-in for the server's system handling an event dispatched to an entity.
+ */
+public abstract class EntityEventSystem<ECS_TYPE, E extends EcsEvent> implements ISystem<ECS_TYPE> {
+
+    private final Class<E> eventType;
+
+    protected EntityEventSystem(Class<E> eventType) {
+        this.eventType = eventType;
+    }
+
+    public Class<E> getEventType() {
+        return eventType;
+    }
+
+    public abstract void handle(int index, ArchetypeChunk<ECS_TYPE> chunk, Store<ECS_TYPE> store,
+                                CommandBuffer<ECS_TYPE> buffer, E event);
+
+    public abstract Query<ECS_TYPE> getQuery();
+}
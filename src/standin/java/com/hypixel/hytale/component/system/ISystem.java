@@ -0,0 +1,20 @@
+package com.hypixel.hytale.component.system;
+
+import com.hypixel.hytale.component.SystemGroup;
+import com.hypixel.hytale.component.dependency.Dependency;
+
+import java.util.Set;
+
+/**
+ * Stand-in for the server's ECS system.
+ */
+public interface ISystem<ECS_TYPE> {
+
+    default Set<Dependency<ECS_TYPE>> getDependencies() {
+        return Set.of();
+    }
+
+    default SystemGroup<ECS_TYPE> getGroup() {
+        return null;
+    }
+}
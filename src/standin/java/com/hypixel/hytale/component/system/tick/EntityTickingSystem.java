@@ -0,0 +1,18 @@
+package com.hypixel.hytale.component.system.tick;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.ISystem;
+
+/**
+ * Stand-in for the server's system ticked once per matching entity.
+ */
+public abstract class EntityTickingSystem<ECS_TYPE> implements ISystem<ECS_TYPE> {
+
+    public abstract void tick(float dt, int index, ArchetypeChunk<ECS_TYPE> chunk,
+                              Store<ECS_TYPE> store, CommandBuffer<ECS_TYPE> buffer);
+
+    public abstract Query<ECS_TYPE> getQuery();
+}
@@ -0,0 +1,12 @@
+package com.hypixel.hytale.component.system.tick;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.ISystem;
+
+/**
+ * Stand-in for the server's system ticked once per store.
+ */
+public abstract class TickingSystem<ECS_TYPE> implements ISystem<ECS_TYPE> {
+
+    public abstract void tick(float dt, int systemIndex, Store<ECS_TYPE> store);
+}
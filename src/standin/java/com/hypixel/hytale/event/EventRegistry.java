@@ -0,0 +1,28 @@
+package com.hypixel.hytale.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Stand-in for the server's event registry. Keeps the listeners so the
+ * caller can dispatch events to them.
+ */
+public class EventRegistry {
+
+    private final Map<Class<?>, List<Consumer<?>>> listeners = new ConcurrentHashMap<>();
+
+    public <E> void registerGlobal(Class<E> eventClass, Consumer<E> listener) {
+        listeners.computeIfAbsent(eventClass, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E> void dispatch(E event) {
+        for (Consumer<?> listener : listeners.getOrDefault(event.getClass(), new ArrayList<>())) {
+            ((Consumer<E>) listener).accept(event);
+        }
+    }
+}
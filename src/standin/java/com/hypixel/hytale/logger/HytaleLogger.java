@@ -0,0 +1,40 @@
+package com.hypixel.hytale.logger;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stand-in for the server's logger, backed by java.util.logging.
+ */
+public class HytaleLogger {
+
+    private final Logger logger;
+
+    private HytaleLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    public static HytaleLogger forEnclosingClass() {
+        return new HytaleLogger(Logger.getLogger(StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
+            .getCallerClass().getName()));
+    }
+
+    public Api atInfo() {
+        return message -> logger.log(Level.INFO, message);
+    }
+
+    public Api atWarning() {
+        return message -> logger.log(Level.WARNING, message);
+    }
+
+    public Api atSevere() {
+        return message -> logger.log(Level.SEVERE, message);
+    }
+
+    /**
+     * Stand-in for the server's fluent logging call.
+     */
+    public interface Api {
+        void log(String message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.hypixel.hytale.math.util;
+
+/**
+ * Stand-in for the server's chunk index helpers.
+ */
+public final class ChunkUtil {
+
+    private ChunkUtil() {
+    }
+
+    public static long indexChunk(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,31 @@
+package com.hypixel.hytale.math.vector;
+
+/**
+ * Stand-in for the server's position and rotation.
+ */
+public class Transform {
+
+    private final Vector3d position;
+    private final Vector3f rotation;
+
+    public Transform() {
+        this(new Vector3d(), new Vector3f());
+    }
+
+    public Transform(Vector3d position, Vector3f rotation) {
+        this.position = position;
+        this.rotation = rotation;
+    }
+
+    public Vector3d getPosition() {
+        return position;
+    }
+
+    public Vector3f getRotation() {
+        return rotation;
+    }
+
+    public Transform clone() {
+        return new Transform(position.clone(), rotation.clone());
+    }
+}
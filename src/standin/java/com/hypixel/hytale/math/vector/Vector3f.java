@@ -0,0 +1,35 @@
+package com.hypixel.hytale.math.vector;
+
+/**
+ * Stand-in for the server's float vector, used for rotations.
+ */
+public class Vector3f {
+    public float x;
+    public float y;
+    public float z;
+
+    public Vector3f() {
+    }
+
+    public Vector3f(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public float getYaw() {
+        return x;
+    }
+
+    public float getPitch() {
+        return y;
+    }
+
+    public float getRoll() {
+        return z;
+    }
+
+    public Vector3f clone() {
+        return new Vector3f(x, y, z);
+    }
+}
@@ -0,0 +1,8 @@
+package com.hypixel.hytale.protocol;
+
+/**
+ * Stand-in for the server's protocol enum, with only the constants the plugin uses.
+ */
+public enum ApplyMovementType {
+    Position
+}
@@ -0,0 +1,19 @@
+package com.hypixel.hytale.protocol;
+
+/**
+ * Stand-in for the server's protocol rotation.
+ */
+public class Direction {
+    public float yaw;
+    public float pitch;
+    public float roll;
+
+    public Direction() {
+    }
+
+    public Direction(float yaw, float pitch, float roll) {
+        this.yaw = yaw;
+        this.pitch = pitch;
+        this.roll = roll;
+    }
+}
@@ -0,0 +1,9 @@
+package com.hypixel.hytale.protocol;
+
+/**
+ * Stand-in for the server's protocol enum.
+ */
+public enum GameMode {
+    Adventure,
+    Creative
+}
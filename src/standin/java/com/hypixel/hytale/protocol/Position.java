@@ -0,0 +1,19 @@
+package com.hypixel.hytale.protocol;
+
+/**
+ * Stand-in for the server's protocol position.
+ */
+public class Position {
+    public double x;
+    public double y;
+    public double z;
+
+    public Position() {
+    }
+
+    public Position(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+}
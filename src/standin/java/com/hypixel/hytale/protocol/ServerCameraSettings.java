@@ -0,0 +1,41 @@
+package com.hypixel.hytale.protocol;
+
+/**
+ * Stand-in for the server's camera settings, with the fields the plugin sets.
+ */
+public class ServerCameraSettings {
+    public float positionLerpSpeed;
+    public float rotationLerpSpeed;
+    public float speedModifier;
+    public boolean allowPitchControls;
+    public boolean displayCursor;
+    public boolean displayReticle;
+    public boolean sendMouseMotion;
+    public boolean skipCharacterPhysics;
+    public boolean isFirstPerson;
+    public MovementForceRotationType movementForceRotationType;
+    public Direction movementForceRotation;
+
+    public AttachedToType attachedToType;
+    public int attachedToEntityId;
+    public boolean eyeOffset;
+    public PositionDistanceOffsetType positionDistanceOffsetType;
+    public Position positionOffset;
+    public Direction rotationOffset;
+
+    public PositionType positionType;
+    public RotationType rotationType;
+    public Position position;
+    public Direction rotation;
+
+    public CanMoveType canMoveType;
+    public ApplyMovementType applyMovementType;
+    public Vector3f movementMultiplier;
+
+    public ApplyLookType applyLookType;
+    public Vector2f lookMultiplier;
+    public MouseInputType mouseInputType;
+    public MouseInputTargetType mouseInputTargetType;
+
+    public Vector3f planeNormal;
+}
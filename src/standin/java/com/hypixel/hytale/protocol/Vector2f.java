@@ -0,0 +1,17 @@
+package com.hypixel.hytale.protocol;
+
+/**
+ * Stand-in for the server's protocol vector.
+ */
+public class Vector2f {
+    public float x;
+    public float y;
+
+    public Vector2f() {
+    }
+
+    public Vector2f(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+}
@@ -0,0 +1,19 @@
+package com.hypixel.hytale.protocol;
+
+/**
+ * Stand-in for the server's protocol vector.
+ */
+public class Vector3f {
+    public float x;
+    public float y;
+    public float z;
+
+    public Vector3f() {
+    }
+
+    public Vector3f(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+}
@@ -0,0 +1,23 @@
+package com.hypixel.hytale.protocol.packets.camera;
+
+import com.hypixel.hytale.protocol.ClientCameraView;
+import com.hypixel.hytale.protocol.Packet;
+import com.hypixel.hytale.protocol.ServerCameraSettings;
+
+/**
+ * Stand-in for the server's camera packet.
+ */
+public class SetServerCamera implements Packet {
+    public ClientCameraView clientCameraView;
+    public boolean isLocked;
+    public ServerCameraSettings cameraSettings;
+
+    public SetServerCamera() {
+    }
+
+    public SetServerCamera(ClientCameraView clientCameraView, boolean isLocked, ServerCameraSettings cameraSettings) {
+        this.clientCameraView = clientCameraView;
+        this.isLocked = isLocked;
+        this.cameraSettings = cameraSettings;
+    }
+}
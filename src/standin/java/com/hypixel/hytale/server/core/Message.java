@@ -0,0 +1,27 @@
+package com.hypixel.hytale.server.core;
+
+/**
+ * Stand-in for the server's chat message.
+ */
+public class Message {
+
+    private final String text;
+    private String color;
+
+    private Message(String text) {
+        this.text = text;
+    }
+
+    public static Message raw(String text) {
+        return new Message(text);
+    }
+
+    public Message color(String color) {
+        this.color = color;
+        return this;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
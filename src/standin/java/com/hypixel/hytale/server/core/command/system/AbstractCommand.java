@@ -0,0 +1,55 @@
+package com.hypixel.hytale.server.core.command.system;
+
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgumentType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stand-in for the server's command base class.
+ */
+public abstract class AbstractCommand {
+
+    private final String name;
+    private final String description;
+    private final List<AbstractCommand> subCommands = new ArrayList<>();
+    private int requiredArgs;
+
+    protected AbstractCommand(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+
+    protected <T> OptionalArg<T> withOptionalArg(String name, String description, ArgumentType<T> type) {
+        return new OptionalArg<>(name, description, type);
+    }
+
+    protected <T> RequiredArg<T> withRequiredArg(String name, String description, ArgumentType<T> type) {
+        return new RequiredArg<>(name, description, type, requiredArgs++);
+    }
+
+    public void addAliases(String... aliases) {
+    }
+
+    public void addSubCommand(AbstractCommand command) {
+        subCommands.add(command);
+    }
+
+    public void setPermissionGroup(GameMode gameMode) {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<AbstractCommand> getSubCommands() {
+        return subCommands;
+    }
+}
@@ -0,0 +1,67 @@
+package com.hypixel.hytale.server.core.command.system;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.arguments.system.Argument;
+import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stand-in for the server's command context. Parses the input string the
+ * way the command line reads: positional values for required arguments
+ * and "--name value" for optional ones.
+ */
+public class CommandContext {
+
+    private final String inputString;
+    private final List<String> positional = new ArrayList<>();
+    private final List<String> tokens;
+    private int messagesSent;
+
+    public CommandContext(String inputString) {
+        this.inputString = inputString;
+        this.tokens = inputString.isBlank() ? List.of() : List.of(inputString.trim().split("\\s+"));
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).startsWith("--")) {
+                i++;
+            } else {
+                positional.add(tokens.get(i));
+            }
+        }
+    }
+
+    public boolean provided(Argument<?> argument) {
+        return value(argument) != null;
+    }
+
+    public <T> T get(Argument<T> argument) {
+        String value = value(argument);
+        if (value == null) {
+            return null;
+        }
+        ParseResult result = new ParseResult();
+        T parsed = argument.getType().parse(value, result);
+        return result.failed() ? null : parsed;
+    }
+
+    public String getInputString() {
+        return inputString;
+    }
+
+    public void sendMessage(Message message) {
+        messagesSent++;
+    }
+
+    public int getMessagesSent() {
+        return messagesSent;
+    }
+
+    private String value(Argument<?> argument) {
+        if (argument instanceof OptionalArg<?>) {
+            int at = tokens.indexOf("--" + argument.getName());
+            return at >= 0 && at + 1 < tokens.size() ? tokens.get(at + 1) : null;
+        }
+        return argument.getIndex() < positional.size() ? positional.get(argument.getIndex()) : null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.hypixel.hytale.server.core.command.system;
+
+import com.hypixel.hytale.server.core.Message;
+
+/**
+ * Stand-in for the server's argument parse result.
+ */
+public class ParseResult {
+
+    private Message failure;
+
+    public void fail(Message message) {
+        this.failure = message;
+    }
+
+    public boolean failed() {
+        return failure != null;
+    }
+}
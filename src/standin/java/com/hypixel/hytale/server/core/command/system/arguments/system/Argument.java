@@ -0,0 +1,37 @@
+package com.hypixel.hytale.server.core.command.system.arguments.system;
+
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgumentType;
+
+/**
+ * Stand-in for the server's command argument.
+ */
+public abstract class Argument<T> {
+
+    private final String name;
+    private final String description;
+    private final ArgumentType<T> type;
+    private final int index;
+
+    protected Argument(String name, String description, ArgumentType<T> type, int index) {
+        this.name = name;
+        this.description = description;
+        this.type = type;
+        this.index = index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public ArgumentType<T> getType() {
+        return type;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+}
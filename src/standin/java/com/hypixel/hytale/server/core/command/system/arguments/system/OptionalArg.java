@@ -0,0 +1,13 @@
+package com.hypixel.hytale.server.core.command.system.arguments.system;
+
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgumentType;
+
+/**
+ * Stand-in for the server's optional "--name value" argument.
+ */
+public class OptionalArg<T> extends Argument<T> {
+
+    public OptionalArg(String name, String description, ArgumentType<T> type) {
+        super(name, description, type, -1);
+    }
+}
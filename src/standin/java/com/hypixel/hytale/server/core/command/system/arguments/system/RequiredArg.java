@@ -0,0 +1,13 @@
+package com.hypixel.hytale.server.core.command.system.arguments.system;
+
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgumentType;
+
+/**
+ * Stand-in for the server's positional argument.
+ */
+public class RequiredArg<T> extends Argument<T> {
+
+    public RequiredArg(String name, String description, ArgumentType<T> type, int index) {
+        super(name, description, type, index);
+    }
+}
@@ -0,0 +1,19 @@
+package com.hypixel.hytale.server.core.command.system.arguments.types;
+
+import com.hypixel.hytale.server.core.command.system.ParseResult;
+
+/**
+ * Stand-in for the server's built-in argument types.
+ */
+public final class ArgTypes {
+
+    public static final SingleArgumentType<String> STRING = new SingleArgumentType<>("string", "A word") {
+        @Override
+        public String parse(String input, ParseResult result) {
+            return input;
+        }
+    };
+
+    private ArgTypes() {
+    }
+}
@@ -0,0 +1,11 @@
+package com.hypixel.hytale.server.core.command.system.arguments.types;
+
+import com.hypixel.hytale.server.core.command.system.ParseResult;
+
+/**
+ * Stand-in for the server's argument type.
+ */
+public abstract class ArgumentType<T> {
+
+    public abstract T parse(String input, ParseResult result);
+}
@@ -0,0 +1,23 @@
+package com.hypixel.hytale.server.core.command.system.arguments.types;
+
+/**
+ * Stand-in for the server's argument type read from a single word.
+ */
+public abstract class SingleArgumentType<T> extends ArgumentType<T> {
+
+    private final String name;
+    private final String description;
+
+    protected SingleArgumentType(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,32 @@
+package com.hypixel.hytale.server.core.command.system.basecommands;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.command.system.AbstractCommand;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Stand-in for the server's command run by a player on their world thread.
+ */
+public abstract class AbstractPlayerCommand extends AbstractCommand {
+
+    protected AbstractPlayerCommand(String name, String description) {
+        super(name, description);
+    }
+
+    protected abstract void execute(CommandContext context, Store<EntityStore> store, Ref<EntityStore> entityRef,
+                                    PlayerRef playerRef, World world);
+
+    /**
+     * Run the command as the server would once it has parsed the input.
+     * Must run on the player's world thread.
+     */
+    public void run(CommandContext context, PlayerRef playerRef) {
+        Ref<EntityStore> entityRef = playerRef.getReference();
+        Store<EntityStore> store = entityRef.getStore();
+        execute(context, store, entityRef, playerRef, store.getExternalData().getWorld());
+    }
+}
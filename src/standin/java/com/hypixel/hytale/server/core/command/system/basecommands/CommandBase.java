@@ -0,0 +1,23 @@
+package com.hypixel.hytale.server.core.command.system.basecommands;
+
+import com.hypixel.hytale.server.core.command.system.AbstractCommand;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+
+/**
+ * Stand-in for the server's command run on the command thread.
+ */
+public abstract class CommandBase extends AbstractCommand {
+
+    protected CommandBase(String name, String description) {
+        super(name, description);
+    }
+
+    protected abstract void executeSync(CommandContext context);
+
+    /**
+     * Run the command as the server would once it has parsed the input.
+     */
+    public void run(CommandContext context) {
+        executeSync(context);
+    }
+}
@@ -0,0 +1,42 @@
+package com.hypixel.hytale.server.core.entity.entities;
+
+import com.hypixel.hytale.component.ComponentAccessor;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Stand-in for the server's player component.
+ */
+public class Player implements Component<EntityStore> {
+
+    private static final ComponentType<EntityStore, Player> COMPONENT_TYPE = new ComponentType<>();
+
+    private GameMode gameMode;
+
+    public Player(GameMode gameMode) {
+        this.gameMode = gameMode;
+    }
+
+    public static ComponentType<EntityStore, Player> getComponentType() {
+        return COMPONENT_TYPE;
+    }
+
+    public GameMode getGameMode() {
+        return gameMode;
+    }
+
+    public static void setGameMode(Ref<EntityStore> ref, GameMode gameMode, ComponentAccessor<EntityStore> accessor) {
+        Player player = accessor.getComponent(ref, COMPONENT_TYPE);
+        if (player != null) {
+            player.gameMode = gameMode;
+        }
+    }
+
+    @Override
+    public Player clone() {
+        return new Player(gameMode);
+    }
+}
@@ -0,0 +1,15 @@
+package com.hypixel.hytale.server.core.event.events.ecs;
+
+import com.hypixel.hytale.component.system.CancellableEcsEvent;
+
+/**
+ * Stand-in for the server's item drop events.
+ */
+public abstract class DropItemEvent extends CancellableEcsEvent {
+
+    /**
+     * Stand-in for the event fired when a player asks to drop an item.
+     */
+    public static class PlayerRequest extends DropItemEvent {
+    }
+}
@@ -0,0 +1,9 @@
+package com.hypixel.hytale.server.core.event.events.ecs;
+
+import com.hypixel.hytale.component.system.CancellableEcsEvent;
+
+/**
+ * Stand-in for the server's block place event.
+ */
+public class PlaceBlockEvent extends CancellableEcsEvent {
+}
@@ -0,0 +1,15 @@
+package com.hypixel.hytale.server.core.event.events.ecs;
+
+import com.hypixel.hytale.component.system.CancellableEcsEvent;
+
+/**
+ * Stand-in for the server's block use events.
+ */
+public abstract class UseBlockEvent extends CancellableEcsEvent {
+
+    /**
+     * Stand-in for the event fired before a block is used.
+     */
+    public static class Pre extends UseBlockEvent {
+    }
+}
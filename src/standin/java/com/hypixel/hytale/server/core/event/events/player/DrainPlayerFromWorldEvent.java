@@ -0,0 +1,27 @@
+package com.hypixel.hytale.server.core.event.events.player;
+
+import com.hypixel.hytale.component.Holder;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Stand-in for the server's event fired when a player leaves a world.
+ */
+public class DrainPlayerFromWorldEvent {
+
+    private final Holder<EntityStore> holder;
+    private final World world;
+
+    public DrainPlayerFromWorldEvent(Holder<EntityStore> holder, World world) {
+        this.holder = holder;
+        this.world = world;
+    }
+
+    public Holder<EntityStore> getHolder() {
+        return holder;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+}
@@ -0,0 +1,19 @@
+package com.hypixel.hytale.server.core.event.events.player;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+/**
+ * Stand-in for the server's event fired when a player disconnects.
+ */
+public class PlayerDisconnectEvent {
+
+    private final PlayerRef playerRef;
+
+    public PlayerDisconnectEvent(PlayerRef playerRef) {
+        this.playerRef = playerRef;
+    }
+
+    public PlayerRef getPlayerRef() {
+        return playerRef;
+    }
+}
@@ -0,0 +1,20 @@
+package com.hypixel.hytale.server.core.event.events.player;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Stand-in for the server's event fired when a client reports mouse motion.
+ */
+public class PlayerMouseMotionEvent {
+
+    private final Ref<EntityStore> playerRef;
+
+    public PlayerMouseMotionEvent(Ref<EntityStore> playerRef) {
+        this.playerRef = playerRef;
+    }
+
+    public Ref<EntityStore> getPlayerRef() {
+        return playerRef;
+    }
+}
@@ -0,0 +1,20 @@
+package com.hypixel.hytale.server.core.event.events.player;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Stand-in for the server's event fired once a joining player is in their world.
+ */
+public class PlayerReadyEvent {
+
+    private final Ref<EntityStore> playerRef;
+
+    public PlayerReadyEvent(Ref<EntityStore> playerRef) {
+        this.playerRef = playerRef;
+    }
+
+    public Ref<EntityStore> getPlayerRef() {
+        return playerRef;
+    }
+}
@@ -0,0 +1,32 @@
+package com.hypixel.hytale.server.core.io;
+
+import com.hypixel.hytale.protocol.Packet;
+import io.netty.channel.Channel;
+
+/**
+ * Stand-in for the server's per-connection packet handler. Counts the
+ * packets written and keeps the last one.
+ */
+public class PacketHandler {
+
+    private final Channel channel = () -> true;
+    private long packetsWritten;
+    private Packet lastPacket;
+
+    public void writeNoCache(Packet packet) {
+        lastPacket = packet;
+        packetsWritten++;
+    }
+
+    public Channel getChannel() {
+        return channel;
+    }
+
+    public long getPacketsWritten() {
+        return packetsWritten;
+    }
+
+    public Packet getLastPacket() {
+        return lastPacket;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hypixel.hytale.server.core.modules.entity.component;
+
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Stand-in for the server's entity position component.
+ */
+public class TransformComponent implements Component<EntityStore> {
+
+    private static final ComponentType<EntityStore, TransformComponent> COMPONENT_TYPE = new ComponentType<>();
+
+    private final Vector3d position;
+
+    public TransformComponent(Vector3d position) {
+        this.position = position;
+    }
+
+    public static ComponentType<EntityStore, TransformComponent> getComponentType() {
+        return COMPONENT_TYPE;
+    }
+
+    public Vector3d getPosition() {
+        return position;
+    }
+
+    @Override
+    public TransformComponent clone() {
+        return new TransformComponent(position.clone());
+    }
+}
@@ -0,0 +1,43 @@
+package com.hypixel.hytale.server.core.modules.entity.damage;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.system.CancellableEcsEvent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Stand-in for the server's damage event, dispatched to the victim.
+ */
+public class Damage extends CancellableEcsEvent {
+
+    private final Source source;
+
+    public Damage(Source source) {
+        this.source = source;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * Stand-in for what dealt the damage.
+     */
+    public interface Source {
+    }
+
+    /**
+     * Stand-in for damage dealt by an entity.
+     */
+    public static class EntitySource implements Source {
+
+        private final Ref<EntityStore> ref;
+
+        public EntitySource(Ref<EntityStore> ref) {
+            this.ref = ref;
+        }
+
+        public Ref<EntityStore> getRef() {
+            return ref;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.hypixel.hytale.server.core.modules.entity.damage;
+
+import com.hypixel.hytale.component.SystemGroup;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Stand-in for the server's damage module and its system groups.
+ */
+public class DamageModule {
+
+    private static final DamageModule INSTANCE = new DamageModule();
+
+    private final SystemGroup<EntityStore> filterDamageGroup = new SystemGroup<>();
+
+    public static DamageModule get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Systems that may cancel damage before it is applied.
+     */
+    public SystemGroup<EntityStore> getFilterDamageGroup() {
+        return filterDamageGroup;
+    }
+}
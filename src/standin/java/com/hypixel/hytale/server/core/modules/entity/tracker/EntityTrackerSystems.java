@@ -0,0 +1,47 @@
+package com.hypixel.hytale.server.core.modules.entity.tracker;
+
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Stand-in for the server's entity tracking systems.
+ */
+public final class EntityTrackerSystems {
+
+    private EntityTrackerSystems() {
+    }
+
+    /**
+     * Stand-in for the system that collects the entities each player sees.
+     */
+    public static class CollectVisible {
+    }
+
+    /**
+     * Stand-in for the component holding the entities a player sees.
+     */
+    public static class EntityViewer implements Component<EntityStore> {
+
+        private static final ComponentType<EntityStore, EntityViewer> COMPONENT_TYPE = new ComponentType<>();
+
+        public final Set<Ref<EntityStore>> visible = new HashSet<>();
+        public int viewRadiusBlocks;
+
+        public static ComponentType<EntityStore, EntityViewer> getComponentType() {
+            return COMPONENT_TYPE;
+        }
+
+        @Override
+        public EntityViewer clone() {
+            EntityViewer copy = new EntityViewer();
+            copy.visible.addAll(visible);
+            copy.viewRadiusBlocks = viewRadiusBlocks;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.hypixel.hytale.server.core.modules.entity.tracker;
+
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Stand-in for the server's network id component.
+ */
+public class NetworkId implements Component<EntityStore> {
+
+    private static final ComponentType<EntityStore, NetworkId> COMPONENT_TYPE = new ComponentType<>();
+
+    private final int id;
+
+    public NetworkId(int id) {
+        this.id = id;
+    }
+
+    public static ComponentType<EntityStore, NetworkId> getComponentType() {
+        return COMPONENT_TYPE;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public NetworkId clone() {
+        return new NetworkId(id);
+    }
+}
@@ -0,0 +1,22 @@
+package com.hypixel.hytale.server.core.modules.entitystats;
+
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Stand-in for the server's entity stats (health and the like).
+ */
+public class EntityStatMap implements Component<EntityStore> {
+
+    private static final ComponentType<EntityStore, EntityStatMap> COMPONENT_TYPE = new ComponentType<>();
+
+    public static ComponentType<EntityStore, EntityStatMap> getComponentType() {
+        return COMPONENT_TYPE;
+    }
+
+    @Override
+    public EntityStatMap clone() {
+        return new EntityStatMap();
+    }
+}
@@ -0,0 +1,57 @@
+package com.hypixel.hytale.server.core.plugin;
+
+import com.hypixel.hytale.event.EventRegistry;
+import com.hypixel.hytale.server.core.command.system.CommandRegistry;
+
+import java.nio.file.Path;
+
+/**
+ * Stand-in for the server's plugin base class.
+ */
+public abstract class JavaPlugin {
+
+    private final JavaPluginInit init;
+    private final PluginManifest manifest = new PluginManifest();
+    private final EventRegistry eventRegistry = new EventRegistry();
+    private final CommandRegistry commandRegistry = new CommandRegistry();
+
+    protected JavaPlugin(JavaPluginInit init) {
+        this.init = init;
+    }
+
+    protected void setup() {
+    }
+
+    protected void shutdown() {
+    }
+
+    /**
+     * Set the plugin up as the server would after loading it.
+     */
+    public void start() {
+        setup();
+    }
+
+    /**
+     * Shut the plugin down as the server would when stopping.
+     */
+    public void stop() {
+        shutdown();
+    }
+
+    public PluginManifest getManifest() {
+        return manifest;
+    }
+
+    public Path getDataDirectory() {
+        return init.getDataDirectory();
+    }
+
+    public EventRegistry getEventRegistry() {
+        return eventRegistry;
+    }
+
+    public CommandRegistry getCommandRegistry() {
+        return commandRegistry;
+    }
+}
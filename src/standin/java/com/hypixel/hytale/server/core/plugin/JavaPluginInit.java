@@ -0,0 +1,19 @@
+package com.hypixel.hytale.server.core.plugin;
+
+import java.nio.file.Path;
+
+/**
+ * Stand-in for what the server hands a plugin when loading it.
+ */
+public class JavaPluginInit {
+
+    private final Path dataDirectory;
+
+    public JavaPluginInit(Path dataDirectory) {
+        this.dataDirectory = dataDirectory;
+    }
+
+    public Path getDataDirectory() {
+        return dataDirectory;
+    }
+}
@@ -0,0 +1,11 @@
+package com.hypixel.hytale.server.core.plugin;
+
+/**
+ * Stand-in for the server's plugin manifest.
+ */
+public class PluginManifest {
+
+    public String getVersion() {
+        return "standin";
+    }
+}
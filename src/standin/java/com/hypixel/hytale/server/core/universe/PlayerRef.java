@@ -0,0 +1,77 @@
+package com.hypixel.hytale.server.core.universe;
+
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.math.vector.Transform;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.io.PacketHandler;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.UUID;
+
+/**
+ * Stand-in for the server's connected player component.
+ */
+public class PlayerRef implements Component<EntityStore> {
+
+    private static final ComponentType<EntityStore, PlayerRef> COMPONENT_TYPE = new ComponentType<>();
+
+    private final UUID uuid;
+    private final String username;
+    private final Ref<EntityStore> reference;
+    private final PacketHandler packetHandler = new PacketHandler();
+    private Transform transform;
+    private Vector3f headRotation;
+
+    public PlayerRef(UUID uuid, String username, Ref<EntityStore> reference, Transform transform, Vector3f headRotation) {
+        this.uuid = uuid;
+        this.username = username;
+        this.reference = reference;
+        this.transform = transform;
+        this.headRotation = headRotation;
+    }
+
+    public static ComponentType<EntityStore, PlayerRef> getComponentType() {
+        return COMPONENT_TYPE;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Ref<EntityStore> getReference() {
+        return reference;
+    }
+
+    public Transform getTransform() {
+        return transform;
+    }
+
+    public Vector3f getHeadRotation() {
+        return headRotation;
+    }
+
+    public PacketHandler getPacketHandler() {
+        return packetHandler;
+    }
+
+    public void sendMessage(Message message) {
+    }
+
+    public void updatePosition(World world, Transform transform, Vector3f headRotation) {
+        this.transform = transform;
+        this.headRotation = headRotation;
+    }
+
+    @Override
+    public PlayerRef clone() {
+        return this;
+    }
+}
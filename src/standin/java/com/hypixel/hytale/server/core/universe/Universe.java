@@ -0,0 +1,42 @@
+package com.hypixel.hytale.server.core.universe;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in for the server's registry of worlds and online players.
+ */
+public class Universe {
+
+    private static final Universe INSTANCE = new Universe();
+
+    private final Map<String, World> worlds = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerRef> players = new ConcurrentHashMap<>();
+
+    public static Universe get() {
+        return INSTANCE;
+    }
+
+    public Map<String, World> getWorlds() {
+        return worlds;
+    }
+
+    public World getWorld(String name) {
+        return worlds.get(name);
+    }
+
+    public PlayerRef getPlayer(UUID uuid) {
+        return players.get(uuid);
+    }
+
+    public void addWorld(World world) {
+        worlds.put(world.getName(), world);
+    }
+
+    public void addPlayer(PlayerRef playerRef) {
+        players.put(playerRef.getUuid(), playerRef);
+    }
+}
@@ -0,0 +1,61 @@
+package com.hypixel.hytale.server.core.universe.world;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stand-in for the server's world: a single tick thread that owns the
+ * entity store. No chunks are ever loaded.
+ */
+public class World {
+
+    private final String name;
+    private final ExecutorService thread;
+    private final EntityStore entityStore;
+    private final Collection<PlayerRef> playerRefs = new ConcurrentLinkedQueue<>();
+
+    public World(String name) {
+        this.name = name;
+        this.thread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread worldThread = new Thread(runnable, "World-" + name);
+            worldThread.setDaemon(true);
+            return worldThread;
+        });
+        this.entityStore = new EntityStore(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void execute(Runnable task) {
+        thread.execute(task);
+    }
+
+    public EntityStore getEntityStore() {
+        return entityStore;
+    }
+
+    public Collection<PlayerRef> getPlayerRefs() {
+        return playerRefs;
+    }
+
+    public WorldChunk getChunkIfLoaded(long index) {
+        return null;
+    }
+
+    public CompletableFuture<WorldChunk> getChunkAsync(long index) {
+        return CompletableFuture.completedFuture(new WorldChunk());
+    }
+
+    public void shutdown() {
+        thread.shutdown();
+    }
+}
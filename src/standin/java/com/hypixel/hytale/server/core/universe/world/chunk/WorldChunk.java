@@ -0,0 +1,7 @@
+package com.hypixel.hytale.server.core.universe.world.chunk;
+
+/**
+ * Stand-in for the server's loaded chunk.
+ */
+public class WorldChunk {
+}
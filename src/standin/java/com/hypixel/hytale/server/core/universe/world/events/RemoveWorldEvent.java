@@ -0,0 +1,19 @@
+package com.hypixel.hytale.server.core.universe.world.events;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+/**
+ * Stand-in for the server's event fired when a world is removed.
+ */
+public class RemoveWorldEvent {
+
+    private final World world;
+
+    public RemoveWorldEvent(World world) {
+        this.world = world;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+}
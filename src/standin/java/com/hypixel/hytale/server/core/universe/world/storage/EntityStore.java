@@ -0,0 +1,29 @@
+package com.hypixel.hytale.server.core.universe.world.storage;
+
+import com.hypixel.hytale.component.ComponentRegistry;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+/**
+ * Stand-in for the server's entity store of a world.
+ */
+public class EntityStore {
+
+    public static final ComponentRegistry<EntityStore> REGISTRY = new ComponentRegistry<>();
+
+    private final World world;
+    private final Store<EntityStore> store;
+
+    public EntityStore(World world) {
+        this.world = world;
+        this.store = new Store<>(this, REGISTRY);
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public Store<EntityStore> getStore() {
+        return store;
+    }
+}
@@ -0,0 +1,8 @@
+package io.netty.channel;
+
+/**
+ * Stand-in for netty's channel, with only the call the plugin makes.
+ */
+public interface Channel {
+    boolean isWritable();
+}
@@ -0,0 +1,84 @@
+package com.zottik.hytale;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The FreecamState read path runs on every guarded interaction, so it must
+ * not allocate, whether or not the player has any state.
+ */
+class FreecamStateAllocationTest {
+
+    private static final int READS = 100_000;
+    // Runs before measuring, so class loading and JIT compilation are done
+    private static final int WARMUP_ROUNDS = 5;
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeAll
+    static void setUp() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+            "JVM does not report per-thread allocation");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "JVM does not report per-thread allocation");
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void readsOfKnownPlayerDoNotAllocate() {
+        FreecamState state = FreecamState.getInstance();
+        UUID playerId = UUID.randomUUID();
+        state.setSpeed(playerId, 7);
+        state.setShowPlayer(playerId, false);
+
+        assertEquals(0, allocatedByReads(state, playerId));
+    }
+
+    @Test
+    void readsOfUnknownPlayerDoNotAllocate() {
+        FreecamState state = FreecamState.getInstance();
+        UUID playerId = UUID.randomUUID();
+        int slots = state.size();
+
+        assertEquals(0, allocatedByReads(state, playerId));
+        assertEquals(slots, state.size(), "reads must not create state");
+    }
+
+    /**
+     * Bytes allocated by the current thread while reading a player's state
+     * READS times, after warming up and minus the cost of measuring.
+     */
+    private static long allocatedByReads(FreecamState state, UUID playerId) {
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            read(state, playerId);
+        }
+
+        long start = threads.getThreadAllocatedBytes(threadId);
+        long overhead = threads.getThreadAllocatedBytes(threadId) - start;
+
+        start = threads.getThreadAllocatedBytes(threadId);
+        read(state, playerId);
+        return threads.getThreadAllocatedBytes(threadId) - start - overhead;
+    }
+
+    private static long read(FreecamState state, UUID playerId) {
+        long sink = 0;
+        for (int i = 0; i < READS; i++) {
+            if (state.isFreecamEnabled(playerId)) {
+                sink++;
+            }
+            sink += state.getSpeed(playerId);
+            if (state.getShowPlayer(playerId)) {
+                sink++;
+            }
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,127 @@
+package com.zottik.hytale;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Eviction keeps FreecamState bounded under player churn without dropping
+ * the state of players who are online.
+ */
+class FreecamStateEvictionTest {
+
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(30);
+    // Retained heap may drift this much over the soak; a leaked slot per
+    // departed player would add several megabytes
+    private static final long HEAP_SLACK_BYTES = 4L * 1024 * 1024;
+
+    private final FreecamState state = FreecamState.getInstance();
+
+    @BeforeEach
+    void clearState() {
+        state.evictIdle(0, 0, playerId -> false);
+    }
+
+    @Test
+    void sizeLimitKeepsPinnedPlayers() {
+        Set<UUID> online = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            UUID onlinePlayer = new UUID(1, i);
+            online.add(onlinePlayer);
+            state.setSpeed(onlinePlayer, 3);
+            state.setSpeed(new UUID(2, i), 3);
+        }
+
+        state.evictIdle(IDLE_NANOS, 50, online::contains);
+
+        assertEquals(100, state.size());
+        for (UUID onlinePlayer : online) {
+            assertNotNull(state.findData(onlinePlayer), "online player was evicted");
+        }
+    }
+
+    /**
+     * 100k players join and leave. Preferences are restored in the
+     * background, so for some players the restore lands after they already
+     * left and their slot outlives them; only eviction can drop it. Both the
+     * number of slots between evictions and the heap retained after a GC
+     * must stay flat.
+     */
+    @Test
+    void joinLeaveSoakStaysBounded() {
+        int cycles = 100_000;
+        int maxEntries = 1_000;
+        int onlineLimit = 200;
+        int evictEvery = 500;
+
+        Set<UUID> online = new HashSet<>();
+        ArrayDeque<UUID> joinOrder = new ArrayDeque<>();
+        int maxSizeBefore = 0;
+        int maxSizeAfter = 0;
+        long baselineHeap = 0;
+        for (int i = 0; i < cycles; i++) {
+            if (i == cycles / 10) {
+                // Past the first fill, so the map and the online set have grown to size
+                baselineHeap = retainedHeap();
+            }
+            UUID joining = new UUID(3, i);
+            online.add(joining);
+            joinOrder.add(joining);
+            state.restorePreferences(joining, 1 + i % 10, i % 2 == 0);
+            if (i % 7 == 0) {
+                state.setSpeed(joining, 4);
+            }
+
+            if (joinOrder.size() > onlineLimit) {
+                UUID leaving = joinOrder.poll();
+                online.remove(leaving);
+                state.removePlayer(leaving);
+                if (i % 3 == 0) {
+                    // Late background restore after the disconnect
+                    state.restorePreferences(leaving, 5, true);
+                }
+            }
+
+            if (i % evictEvery == 0) {
+                maxSizeBefore = Math.max(maxSizeBefore, state.size());
+                state.evictIdle(IDLE_NANOS, maxEntries, online::contains);
+                maxSizeAfter = Math.max(maxSizeAfter, state.size());
+            }
+        }
+        state.evictIdle(IDLE_NANOS, maxEntries, online::contains);
+        long finalHeap = retainedHeap();
+
+        assertTrue(state.size() <= maxEntries, "state grew to " + state.size() + " slots");
+        assertTrue(maxSizeAfter <= maxEntries, "state grew to " + maxSizeAfter + " slots after an eviction");
+        // Between evictions only the players who joined since, and late restores for those who left, add slots
+        assertTrue(maxSizeBefore <= maxEntries + 2 * evictEvery,
+            "state grew to " + maxSizeBefore + " slots between evictions");
+        assertTrue(finalHeap - baselineHeap <= HEAP_SLACK_BYTES,
+            "retained heap grew by " + (finalHeap - baselineHeap) / 1024 + " KiB over the soak");
+        for (UUID onlinePlayer : online) {
+            assertNotNull(state.findData(onlinePlayer), "online player was evicted");
+        }
+    }
+
+    /**
+     * Heap in use after a full collection, as far as the JVM settles it.
+     */
+    private static long retainedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}